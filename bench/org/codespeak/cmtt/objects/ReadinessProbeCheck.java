@@ -0,0 +1,233 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks the readiness probe against stand-in servers run as child
+ * processes: one that answers status requests like a Minecraft server, one
+ * that first answers without a version while loading like servers before
+ * 1.13 do, one that only says it is listening like a proxy does, and one
+ * that never says it is ready. Exits with a non-zero status if any check fails
+ *
+ * @author Vector
+ */
+public class ReadinessProbeCheck {
+
+    private static final String STATUS_JSON = "{\"version\":{\"name\":\"1.20.1\",\"protocol\":763},"
+                                            + "\"players\":{\"max\":20,\"online\":0},\"description\":{\"text\":\"Stand-in\"}}";
+    private static final String LOADING_STATUS_JSON = "{\"players\":{\"max\":0,\"online\":0},\"description\":{\"text\":\"\"}}";
+    private static final long LOADING_MILLIS = 2000;
+    private static final long READY_TIMEOUT_SECONDS = 10;
+    private static final long SILENT_WAIT_SECONDS = 5;
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+
+        for (int i = 0; i < 5; i++) {
+            int b = in.readUnsignedByte();
+
+            value |= (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("VarInt is too long");
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.write(value);
+    }
+
+    private static void writePacket(OutputStream out, int packetId, byte[] data) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ByteArrayOutputStream packet = new ByteArrayOutputStream();
+
+        writeVarInt(body, packetId);
+        body.write(data);
+        writeVarInt(packet, body.size());
+        packet.write(body.toByteArray());
+
+        out.write(packet.toByteArray());
+        out.flush();
+    }
+
+    private static void answerStatus(Socket socket, String statusJson) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        OutputStream out = socket.getOutputStream();
+
+        readVarInt(in);
+        readVarInt(in);
+        readVarInt(in);
+        in.readFully(new byte[readVarInt(in)]);
+        in.readUnsignedShort();
+        readVarInt(in);
+        readVarInt(in);
+        readVarInt(in);
+
+        byte[] json = statusJson.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream status = new ByteArrayOutputStream();
+
+        writeVarInt(status, json.length);
+        status.write(json);
+        writePacket(out, 0, status.toByteArray());
+
+        readVarInt(in);
+        readVarInt(in);
+
+        byte[] payload = new byte[8];
+
+        in.readFully(payload);
+        writePacket(out, 1, payload);
+    }
+
+    private static void runStandIn(String mode, int port) throws Exception {
+        if (mode.equals("status") || mode.equals("loading")) {
+            // Servers before 1.13 answer without a version while their worlds load
+            long readyTime = System.currentTimeMillis() + (mode.equals("loading") ? LOADING_MILLIS : 0);
+            ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(() -> {
+                while (true) {
+                    try (Socket socket = serverSocket.accept()) {
+                        answerStatus(socket, System.currentTimeMillis() < readyTime ? LOADING_STATUS_JSON : STATUS_JSON);
+                    } catch (IOException ex) {
+
+                    }
+                }
+            });
+
+            thread.setDaemon(true);
+            thread.start();
+
+            if (mode.equals("loading")) {
+                System.out.println("[Server thread/INFO]: Preparing level \"world\"");
+                Thread.sleep(LOADING_MILLIS);
+            }
+
+            System.out.println("[Server thread/INFO]: Done (0.512s)! For help, type \"help\"");
+        } else if (mode.equals("proxy")) {
+            System.out.println("[INFO] Listening on /0.0.0.0:25577");
+        } else {
+            System.out.println("[Server thread/INFO]: Preparing level \"world\"");
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static CompletableFuture<ServerStatus> probe(String mode) throws IOException {
+        int port = findFreePort();
+        String javaPath = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder pb = new ProcessBuilder(javaPath, "-cp", System.getProperty("java.class.path"),
+                                               ReadinessProbeCheck.class.getName(), mode, Integer.toString(port));
+        Process process = pb.redirectErrorStream(true).start();
+        CompletableFuture<ServerStatus> future = new CompletableFuture<ServerStatus>();
+        ReadinessProbeThread probeThread = new ReadinessProbeThread(process, new InetSocketAddress(InetAddress.getLoopbackAddress(), port)) {
+            @Override
+            public void ready(ServerStatus status) {
+                future.complete(status);
+            }
+        };
+
+        probeThread.start();
+
+        Thread outputThread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line = null;
+
+                while ((line = reader.readLine()) != null) {
+                    probeThread.lineRead(line);
+                }
+            } catch (IOException ex) {
+
+            }
+        });
+
+        outputThread.setDaemon(true);
+        outputThread.start();
+
+        future.whenComplete((status, ex) -> process.destroyForcibly());
+
+        return future;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2) {
+            runStandIn(args[0], Integer.parseInt(args[1]));
+
+            return;
+        }
+
+        boolean passed = true;
+
+        ServerStatus status = probe("status").get(READY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        if (status == null || status.getProtocolVersion() != 763) {
+            System.out.println("FAIL: server answering status requests was not ready with its status");
+            passed = false;
+        } else {
+            System.out.println("OK: server answering status requests is ready with protocol " + status.getProtocolVersion());
+        }
+
+        long loadingStart = System.currentTimeMillis();
+        ServerStatus loadingStatus = probe("loading").get(READY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long loadingTime = System.currentTimeMillis() - loadingStart;
+
+        if (loadingStatus == null || loadingStatus.getProtocolVersion() != 763 || loadingTime < LOADING_MILLIS) {
+            System.out.println("FAIL: server answering without a version while loading counted as ready too early");
+            passed = false;
+        } else {
+            System.out.println("OK: server answering without a version while loading is ready after " + loadingTime + "ms");
+        }
+
+        ServerStatus proxyStatus = probe("proxy").get(READY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        if (proxyStatus != null) {
+            System.out.println("FAIL: proxy not listening on the probed port answered with a status");
+            passed = false;
+        } else {
+            System.out.println("OK: proxy not listening on the probed port is ready from its output");
+        }
+
+        CompletableFuture<ServerStatus> silentFuture = probe("silent");
+
+        try {
+            silentFuture.get(SILENT_WAIT_SECONDS, TimeUnit.SECONDS);
+
+            System.out.println("FAIL: server that never said it was ready counted as ready");
+            passed = false;
+        } catch (TimeoutException ex) {
+            silentFuture.cancel(true);
+
+            System.out.println("OK: server that never said it was ready is still starting");
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+
+}
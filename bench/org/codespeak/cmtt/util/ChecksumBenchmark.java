@@ -0,0 +1,111 @@
+package org.codespeak.cmtt.util;
+
+import com.sun.management.ThreadMXBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+/**
+ * Compares the streaming checksum in ChecksumUtil against the previous
+ * read-everything implementation. Pass a file to hash, or a size in megabytes
+ * to hash a generated temporary file
+ *
+ * @author Vector
+ */
+public class ChecksumBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+
+    private static String legacyChecksum(Path path) throws IOException, NoSuchAlgorithmException {
+        byte[] bytes = Files.readAllBytes(path);
+
+        MessageDigest d = MessageDigest.getInstance("MD5");
+        d.update(bytes);
+        byte[] result = d.digest();
+
+        String output = "";
+
+        for (byte b : result) {
+            output += Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16));
+            output += Character.toUpperCase(Character.forDigit(b & 0xF, 16));
+        }
+
+        return output;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof ThreadMXBean) {
+            return ((ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path path = null;
+        boolean temporary = false;
+
+        if (args.length > 0 && Files.exists(Paths.get(args[0]))) {
+            path = Paths.get(args[0]);
+        } else {
+            int megabytes = (args.length > 0 ? Integer.parseInt(args[0]) : 200);
+            byte[] block = new byte[1024 * 1024];
+
+            new Random(0).nextBytes(block);
+            path = Files.createTempFile("checksum-benchmark", ".jar");
+            temporary = true;
+
+            for (int i = 0; i < megabytes; i++) {
+                Files.write(path, block, StandardOpenOption.APPEND);
+            }
+        }
+
+        try {
+            if (!legacyChecksum(path).equals(ChecksumUtil.getChecksum(path))) {
+                throw new IllegalStateException("Checksums do not match");
+            }
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                legacyChecksum(path);
+                ChecksumUtil.getChecksum(path);
+            }
+
+            long legacyTime = 0;
+            long legacyAllocated = 0;
+            long streamingTime = 0;
+            long streamingAllocated = 0;
+
+            for (int i = 0; i < ROUNDS; i++) {
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                legacyChecksum(path);
+                legacyTime += System.nanoTime() - start;
+                legacyAllocated += allocatedBytes() - allocated;
+
+                allocated = allocatedBytes();
+                start = System.nanoTime();
+                ChecksumUtil.getChecksum(path);
+                streamingTime += System.nanoTime() - start;
+                streamingAllocated += allocatedBytes() - allocated;
+            }
+
+            System.out.println("File: " + path + " (" + Files.size(path) + " bytes)");
+            System.out.printf("Legacy:    %8.2f ms/op %12d bytes allocated/op%n", legacyTime / 1e6 / ROUNDS, legacyAllocated / ROUNDS);
+            System.out.printf("Streaming: %8.2f ms/op %12d bytes allocated/op%n", streamingTime / 1e6 / ROUNDS, streamingAllocated / ROUNDS);
+        } finally {
+            if (temporary) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+}
@@ -24,7 +24,14 @@ public class Configuration {
     public static final String PROFILES_FOLDER = "profiles";
     public static final String DEVELOPMENT_FOLDER = PROFILES_FOLDER + File.separator + "development";
     public static final String SERVERS_FOLDER = PROFILES_FOLDER + File.separator + "servers";
+    public static final String STORE_FOLDER = PROFILES_FOLDER + File.separator + "store";
+    public static final String MATRIX_FOLDER = PROFILES_FOLDER + File.separator + "matrix";
+    public static final String CRASHES_FOLDER = PROFILES_FOLDER + File.separator + "crashes";
+    public static final String TRASH_FOLDER = PROFILES_FOLDER + File.separator + ".trash";
     public static final String DATA_FILE = "data.json";
+    public static final String CHECKSUM_CACHE_FILE = "checksums.json";
+    public static final String LAUNCH_HISTORY_FILE = "launch_history.jsonl";
+    public static final String RESOURCE_HISTORY_FILE = "resource_history.jsonl";
     public static final String LOGS_FOLDER = "logs";
     public static final String SETTINGS_FILE = "settings.json";
     
@@ -0,0 +1,386 @@
+package org.codespeak.cmtt;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.codespeak.cmtt.Settings.SettingFields;
+import org.codespeak.cmtt.objects.ConsoleBuffer;
+import org.codespeak.cmtt.objects.LaunchRecord;
+import org.codespeak.cmtt.objects.LaunchRegression;
+import org.codespeak.cmtt.objects.ServerLauncher;
+import org.codespeak.cmtt.objects.ServerStatus;
+import org.codespeak.cmtt.objects.TestMatrix;
+import org.codespeak.cmtt.objects.TestMatrixResult;
+import org.codespeak.cmtt.objects.handlers.DataHandler;
+import org.codespeak.cmtt.objects.handlers.DevelopmentProfileHandler;
+import org.codespeak.cmtt.objects.handlers.JavaProfileHandler;
+import org.codespeak.cmtt.objects.handlers.ServerProfileHandler;
+import org.codespeak.cmtt.profiles.DevelopmentProfile;
+import org.codespeak.cmtt.profiles.JavaProfile;
+import org.codespeak.cmtt.profiles.ServerProfile;
+
+/**
+ * Launches a development profile from the command line without starting the
+ * user interface. The server is started, and once it has finished starting
+ * it is stopped again unless asked to keep running. This is the headless entry
+ * point and must be run as the main class itself: the main program extends
+ * the JavaFX Application class, so starting it always starts the JavaFX
+ * toolkit, which needs a display. This class never loads JavaFX. When given
+ * lists of server and Java profiles, every combination is run at once as a
+ * test matrix
+ *
+ * @author Vector
+ */
+public class HeadlessRunner {
+
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_USAGE = 1;
+    public static final int EXIT_PROFILE_NOT_FOUND = 2;
+    public static final int EXIT_START_FAILED = 3;
+    public static final int EXIT_SERVER_STOPPED = 4;
+    public static final int EXIT_TIMEOUT = 5;
+    public static final int EXIT_MATRIX_FAILED = 6;
+
+    private static final long DEFAULT_TIMEOUT_SECONDS = 300;
+
+    private static void printUsage() {
+        System.err.println("Usage: <development profile name or ID> [--timeout <seconds>] [--debug] [--keep-running]");
+        System.err.println("       <development profile name or ID> [--timeout <seconds>] [--servers <names or IDs>] [--java <names or IDs>]");
+        System.err.println();
+        System.err.println("--servers and --java take comma separated lists and run every combination at once.");
+        System.err.println("Use \"System\" in --java for the system Java installation.");
+        System.err.println();
+        System.err.println("Exit codes:");
+        System.err.println("  " + EXIT_SUCCESS + "  the server finished starting");
+        System.err.println("  " + EXIT_USAGE + "  invalid arguments");
+        System.err.println("  " + EXIT_PROFILE_NOT_FOUND + "  the development profile was not found");
+        System.err.println("  " + EXIT_START_FAILED + "  the server could not be started");
+        System.err.println("  " + EXIT_SERVER_STOPPED + "  the server stopped before it finished starting");
+        System.err.println("  " + EXIT_TIMEOUT + "  the server did not finish starting in time");
+        System.err.println("  " + EXIT_MATRIX_FAILED + "  one or more test matrix runs failed");
+    }
+
+    private static DevelopmentProfile findProfile(String nameOrId) {
+        DevelopmentProfile profile = DevelopmentProfileHandler.getProfile(nameOrId);
+
+        if (profile == null) {
+            try {
+                profile = DevelopmentProfileHandler.getProfile(Integer.parseInt(nameOrId));
+            } catch (NumberFormatException ex) {
+
+            }
+        }
+
+        return profile;
+    }
+
+    private static List<ServerProfile> findServerProfiles(String namesOrIds) {
+        List<ServerProfile> profiles = new ArrayList<ServerProfile>();
+
+        for (String nameOrId : namesOrIds.split(",")) {
+            nameOrId = nameOrId.trim();
+
+            ServerProfile profile = ServerProfileHandler.getProfile(nameOrId);
+
+            if (profile == null) {
+                try {
+                    profile = ServerProfileHandler.getProfile(Integer.parseInt(nameOrId));
+                } catch (NumberFormatException ex) {
+
+                }
+            }
+
+            if (profile == null) {
+                System.err.println("Server profile not found: " + nameOrId);
+
+                return null;
+            }
+
+            profiles.add(profile);
+        }
+
+        return profiles;
+    }
+
+    private static List<JavaProfile> findJavaProfiles(String namesOrIds) {
+        List<JavaProfile> profiles = new ArrayList<JavaProfile>();
+
+        for (String nameOrId : namesOrIds.split(",")) {
+            nameOrId = nameOrId.trim();
+
+            if (nameOrId.equalsIgnoreCase("system")) {
+                profiles.add(null);
+
+                continue;
+            }
+
+            JavaProfile profile = JavaProfileHandler.getProfile(nameOrId);
+
+            if (profile == null) {
+                try {
+                    profile = JavaProfileHandler.getProfile(Integer.parseInt(nameOrId));
+                } catch (NumberFormatException ex) {
+
+                }
+            }
+
+            if (profile == null) {
+                System.err.println("Java profile not found: " + nameOrId);
+
+                return null;
+            }
+
+            profiles.add(profile);
+        }
+
+        return profiles;
+    }
+
+    private static int runMatrix(DevelopmentProfile profile, String serverNames, String javaNames, long timeoutSeconds) {
+        List<ServerProfile> serverProfiles = null;
+        List<JavaProfile> javaProfiles = null;
+
+        if (serverNames != null) {
+            serverProfiles = findServerProfiles(serverNames);
+        } else {
+            serverProfiles = new ArrayList<ServerProfile>();
+            serverProfiles.add(profile.getServerProfile());
+        }
+
+        if (javaNames != null) {
+            javaProfiles = findJavaProfiles(javaNames);
+        } else {
+            javaProfiles = new ArrayList<JavaProfile>();
+            javaProfiles.add(profile.getJavaProfile());
+        }
+
+        if (serverProfiles == null || javaProfiles == null) {
+            return EXIT_PROFILE_NOT_FOUND;
+        }
+
+        serverProfiles = new ArrayList<ServerProfile>(new LinkedHashSet<ServerProfile>(serverProfiles));
+        javaProfiles = new ArrayList<JavaProfile>(new LinkedHashSet<JavaProfile>(javaProfiles));
+
+        TestMatrix matrix = new TestMatrix(profile, serverProfiles, javaProfiles, timeoutSeconds) {
+            @Override
+            public void resultReady(TestMatrixResult result) {
+                System.err.println(getSummary(result));
+            }
+        };
+
+        System.err.println("Running " + (serverProfiles.size() * javaProfiles.size()) + " combinations, "
+                         + TestMatrix.getConcurrencyLimit(profile) + " at a time.");
+
+        List<TestMatrixResult> results = null;
+
+        try {
+            results = matrix.run();
+        } catch (IOException ex) {
+            System.err.println("Unable to run test matrix: " + ex.getMessage());
+
+            return EXIT_START_FAILED;
+        } catch (InterruptedException ex) {
+            return EXIT_SERVER_STOPPED;
+        }
+
+        boolean passed = true;
+
+        System.out.println();
+        System.out.println("Test matrix report: " + matrix.getReportPath());
+
+        for (TestMatrixResult result : results) {
+            System.out.println(getSummary(result));
+
+            for (String error : result.getErrors()) {
+                System.out.println("    " + error);
+            }
+
+            passed &= result.isPassed();
+        }
+
+        return (passed ? EXIT_SUCCESS : EXIT_MATRIX_FAILED);
+    }
+
+    private static String getSummary(TestMatrixResult result) {
+        String status = null;
+
+        if (result.isBooted()) {
+            status = String.format("started in %.2fs", result.getStartTime());
+        } else if (result.isTimedOut()) {
+            status = "timed out";
+        } else if (result.getFailure() != null) {
+            status = "failed: " + result.getFailure();
+        } else {
+            status = "stopped before it finished starting";
+        }
+
+        int errorCount = result.getErrors().size();
+
+        if (errorCount > 0) {
+            status += ", " + errorCount + " error" + (errorCount > 1 ? "s" : "") + " logged";
+        }
+
+        return (result.isPassed() ? "PASS " : "FAIL ") + result.getServerProfileName() + " / " + result.getJavaProfileName() + ": " + status;
+    }
+
+    /**
+     * Runs a headless launch
+     * @param args command line arguments
+     * @return exit code of the launch
+     */
+    public static int run(String[] args) {
+        String profileNameOrId = null;
+        long timeoutSeconds = DEFAULT_TIMEOUT_SECONDS;
+        boolean debugMode = false;
+        boolean keepRunning = false;
+        String serverNames = null;
+        String javaNames = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+
+            if (arg.equals("--timeout") && i + 1 < args.length) {
+                try {
+                    timeoutSeconds = Long.parseLong(args[++i]);
+                } catch (NumberFormatException ex) {
+                    printUsage();
+
+                    return EXIT_USAGE;
+                }
+            } else if (arg.equals("--debug")) {
+                debugMode = true;
+            } else if (arg.equals("--keep-running")) {
+                keepRunning = true;
+            } else if (arg.equals("--servers") && i + 1 < args.length) {
+                serverNames = args[++i];
+            } else if (arg.equals("--java") && i + 1 < args.length) {
+                javaNames = args[++i];
+            } else if (profileNameOrId == null && !arg.startsWith("--")) {
+                profileNameOrId = arg;
+            } else {
+                printUsage();
+
+                return EXIT_USAGE;
+            }
+        }
+
+        if (profileNameOrId == null || timeoutSeconds <= 0) {
+            printUsage();
+
+            return EXIT_USAGE;
+        }
+
+        DevelopmentProfile profile = findProfile(profileNameOrId);
+
+        if (profile == null) {
+            System.err.println("Development profile not found: " + profileNameOrId);
+
+            return EXIT_PROFILE_NOT_FOUND;
+        }
+
+        if (serverNames != null || javaNames != null) {
+            return runMatrix(profile, serverNames, javaNames, timeoutSeconds);
+        }
+
+        ServerLauncher launcher = new ServerLauncher(profile, profile.getServerProfile(), profile.getJavaProfile(), new ConsoleBuffer()) {
+            @Override
+            public void lineRead(String line) {
+                System.out.println(line);
+            }
+
+            @Override
+            public void started(LaunchRecord record, LaunchRegression regression) {
+                ServerStatus status = getServerStatus();
+
+                System.err.println(String.format("Server started in %.2fs on port %d.", record.getTotalTime() / 1000.0, getPort()));
+
+                if (status != null) {
+                    System.err.println(String.format("Protocol %d (%s), ping %dms, MOTD: %s", status.getProtocolVersion(),
+                                                     status.getVersionName(), status.getLatency(), status.getMOTD()));
+                } else {
+                    System.err.println("The server did not answer status requests on that port.");
+                }
+
+                if (regression != null) {
+                    System.err.println(regression.getMessage());
+                }
+            }
+        };
+
+        String startProblem = launcher.getStartProblem();
+
+        if (startProblem != null) {
+            System.err.println(startProblem);
+
+            return EXIT_START_FAILED;
+        }
+
+        try {
+            launcher.prepare();
+            launcher.launch(debugMode);
+
+            if (!launcher.waitUntilStarted(timeoutSeconds, TimeUnit.SECONDS)) {
+                boolean running = launcher.isRunning();
+
+                launcher.destroy();
+
+                if (running) {
+                    System.err.println("Server did not finish starting within " + timeoutSeconds + " seconds.");
+
+                    return EXIT_TIMEOUT;
+                }
+
+                System.err.println("Server stopped before it finished starting.");
+
+                return EXIT_SERVER_STOPPED;
+            }
+
+            if (keepRunning) {
+                launcher.waitUntilStopped(Long.MAX_VALUE, TimeUnit.SECONDS);
+            } else {
+                Settings settings = Configuration.getSettings();
+                int stopTimeout = settings.getSetting(SettingFields.STOP_TIMEOUT);
+
+                boolean stopping = launcher.stop(stopTimeout, TimeUnit.SECONDS);
+
+                launcher.waitUntilStopped(Long.MAX_VALUE, TimeUnit.SECONDS);
+
+                if (stopping) {
+                    System.err.println(String.format("Server stopped in %.2fs%s.", launcher.getShutdownTime() / 1000.0,
+                                                     (launcher.isForciblyStopped() ? " after being forcibly stopped" : "")));
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Unable to start server: " + ex.getMessage());
+
+            return EXIT_START_FAILED;
+        } catch (InterruptedException ex) {
+            launcher.destroy();
+
+            return EXIT_SERVER_STOPPED;
+        }
+
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        DataHandler.loadData();
+
+        int exitCode = run(args);
+
+        try {
+            DataHandler.saveData();
+        } catch (FileNotFoundException ex) {
+
+        }
+
+        System.exit(exitCode);
+    }
+
+}
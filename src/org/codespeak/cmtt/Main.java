@@ -2,27 +2,26 @@ package org.codespeak.cmtt;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import javafx.application.Application;
 import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 import org.codespeak.cmtt.objects.ProgramException;
 import org.codespeak.cmtt.objects.StageController;
-import org.codespeak.cmtt.objects.handlers.DevelopmentProfileHandler;
-import org.codespeak.cmtt.objects.handlers.JVMFlagsProfileHandler;
-import org.codespeak.cmtt.objects.handlers.JavaProfileHandler;
+import org.codespeak.cmtt.objects.handlers.BackgroundTaskHandler;
+import org.codespeak.cmtt.objects.handlers.DataHandler;
+import org.codespeak.cmtt.objects.handlers.FileWatchHandler;
+import org.codespeak.cmtt.objects.handlers.JarStoreHandler;
+import org.codespeak.cmtt.objects.handlers.TrashHandler;
 import org.codespeak.cmtt.objects.handlers.MappedDataHandler;
-import org.codespeak.cmtt.objects.handlers.ServerProfileHandler;
 import org.codespeak.cmtt.scenes.MainSceneController;
 import org.codespeak.cmtt.scenes.SceneTypes;
 import org.codespeak.cmtt.util.SceneUtil;
-import org.json.JSONObject;
 
 /**
  * The main class
@@ -31,6 +30,8 @@ import org.json.JSONObject;
  */
 public class Main extends Application {
     
+    private static final long STOP_TASK_TIMEOUT_SECONDS = 30;
+    private static final long STOP_CANCEL_TIMEOUT_SECONDS = 5;
     private static MainSceneController mainSceneController = null;
     
     @Override
@@ -45,20 +46,46 @@ public class Main extends Application {
     }
 
     @Override
-    public void stop() throws FileNotFoundException {
+    public void stop() {
         int selectedDevelopmentProfileIndex = mainSceneController.getSelectedDevelopmentProfileIndex();
         
         MappedDataHandler.setMappedData("selected_development_profile", selectedDevelopmentProfileIndex);
         
-        saveData();
+        // Saving waits for running tasks, so it happens off the JavaFX thread.
+        // The thread isn't a daemon, so the program exits once data is saved
+        Thread shutdownThread = new Thread(Main::saveOnExit, "Shutdown");
+        
+        shutdownThread.setDaemon(false);
+        shutdownThread.start();
+    }
+    
+    private static void saveOnExit() {
+        // Tasks can still change profile data, so let them finish before saving
+        try {
+            if (!BackgroundTaskHandler.awaitRunningTasks(STOP_TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                BackgroundTaskHandler.cancelAll();
+                BackgroundTaskHandler.awaitRunningTasks(STOP_CANCEL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            
+        }
+        
+        try {
+            DataHandler.saveData();
+        } catch (FileNotFoundException ex) {
+            logError(ProgramException.fromException(ex));
+        }
+        
         Configuration.saveSettings();
+        FileWatchHandler.stop();
+        TrashHandler.stop();
     }
     
     /**
      * @param args the command line arguments
      */
     public static void main(String[] args) {
-        loadData();
+        DataHandler.loadData();
 
         File serversFolder = new File(Configuration.SERVERS_FOLDER);
         
@@ -71,55 +98,19 @@ public class Main extends Application {
         if (!developmentFolder.exists()) {
             developmentFolder.mkdirs();
         }
-
-        launch(args);
-    }
-    
-    /**
-     * Loads data from data.json
-     */
-    public static void loadData() {
-        File dataFile = new File(Configuration.DATA_FILE);
         
-        if (dataFile.exists()) {
-            try {
-                byte[] bytes = Files.readAllBytes(dataFile.toPath());
-                String jsonString = new String(bytes);
-                JSONObject json = new JSONObject(jsonString);
-                
-                JVMFlagsProfileHandler.loadProfilesFromJSON(json);
-                ServerProfileHandler.loadProfilesFromJSON(json);
-                JavaProfileHandler.loadProfilesFromJson(json);
-                DevelopmentProfileHandler.loadProfilesFromJSON(json);
-                MappedDataHandler.loadFromJSON(json);
-            } catch (IOException ex) {
-                
-            }
-        }
-    }
+        JarStoreHandler.startPurge();
+        FileWatchHandler.start();
+        TrashHandler.start();
 
-    /**
-     * Saves data to data.json
-     */
-    public static void saveData() throws FileNotFoundException {
-        JSONObject json = new JSONObject();
-        
-        JVMFlagsProfileHandler.saveProfilesToJSON(json);
-        ServerProfileHandler.saveProfilesToJSON(json);
-        JavaProfileHandler.saveProfilesToJson(json);
-        DevelopmentProfileHandler.saveProfilesToJSON(json);
-        MappedDataHandler.saveToJSON(json);
-        
-        PrintWriter writer = new PrintWriter(new FileOutputStream(new File(Configuration.DATA_FILE)));
-        writer.write(json.toString(4));
-        writer.close();
+        launch(args);
     }
     
     /**
-     * Logs a program error
+     * Writes a program error to the error log without showing it
      * @param ex exception to log
      */
-    public static void handleError(ProgramException ex) {
+    public static void logError(ProgramException ex) {
         Date nowDate = new Date();
         SimpleDateFormat logFolderSDF = new SimpleDateFormat("M-d-yyyy");
         String fileDateFormat = logFolderSDF.format(nowDate);
@@ -152,6 +143,14 @@ public class Main extends Application {
         } catch (IOException ioe) {
             
         }
+    }
+    
+    /**
+     * Logs a program error and shows it
+     * @param ex exception to log
+     */
+    public static void handleError(ProgramException ex) {
+        logError(ex);
         
         Alert alert = ex.buildAlert();
 
@@ -18,7 +18,12 @@ public class Settings {
         PLUGIN_JARFILE_BASE_DIRECTORY("plugin_jarfile_base_directory", ""),
         SERVER_JARFILE_BASE_DIRECTORY("server_jarfile_base_directory", ""),
         REMEMBER_SELECTED_DEVELOPMENT_PROFILE("remember_selected_development_profile", false),
-        CHECK_UPDATE_ON_STARTUP("check_update_on_startup", true);
+        CHECK_UPDATE_ON_STARTUP("check_update_on_startup", true),
+        REGRESSION_THRESHOLD("regression_threshold", 3.0),
+        SERVER_PORT_RANGE_START("server_port_range_start", 25565),
+        SERVER_PORT_RANGE_END("server_port_range_end", 25664),
+        LAUNCH_THROUGH_SHELL("launch_through_shell", false),
+        STOP_TIMEOUT("stop_timeout", 60);
         
         private final String key;
         private final Object defaultValue;
@@ -105,6 +110,8 @@ public class Settings {
 
                     if (tempValue.getClass() == defaultValue.getClass()) {
                         value = tempValue;
+                    } else if (defaultValue instanceof Double && tempValue instanceof Number) {
+                        value = ((Number) tempValue).doubleValue();
                     }
                 } catch (JSONException ex) {
                         
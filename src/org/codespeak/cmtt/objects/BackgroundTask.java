@@ -0,0 +1,81 @@
+package org.codespeak.cmtt.objects;
+
+import javafx.concurrent.Task;
+import org.codespeak.cmtt.Main;
+
+/**
+ * A long running piece of work, such as copying or deleting files, that
+ * runs off the JavaFX thread. Builds on the JavaFX Task, which coalesces
+ * progress updates and settles whether the work succeeded, failed or was
+ * cancelled. The succeeded, failed and cancelled methods are called from the
+ * JavaFX thread
+ *
+ * @author Vector
+ */
+public abstract class BackgroundTask<T> extends Task<T> implements TaskContext {
+
+    private final String name;
+
+    public BackgroundTask(String name) {
+        this.name = name;
+
+        updateTitle(name);
+    }
+
+    /**
+     * Gets the name of this task
+     * @return name of this task
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void updateProgress(long workDone, long totalWork) {
+        super.updateProgress(workDone, totalWork);
+    }
+
+    @Override
+    public void updateMessage(String message) {
+        super.updateMessage(message);
+    }
+
+    @Override
+    protected void succeeded() {
+        succeeded(getValue());
+    }
+
+    @Override
+    protected void failed() {
+        Throwable throwable = getException();
+
+        failed(throwable instanceof Exception ? (Exception) throwable : new Exception(throwable));
+    }
+
+    /**
+     * Called from the JavaFX thread once this task has finished its work
+     * @param result result of the work
+     */
+    public void succeeded(T result) {
+
+    }
+
+    /**
+     * Called from the JavaFX thread if the work of this task failed
+     * @param ex exception the work failed with
+     */
+    public void failed(Exception ex) {
+        ProgramException ex2 = ProgramException.fromException(ex);
+
+        Main.handleError(ex2);
+    }
+
+    /**
+     * Called from the JavaFX thread if this task was cancelled
+     */
+    @Override
+    public void cancelled() {
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.List;
+
+/**
+ * A fixed-capacity ring buffer holding the most recent lines of a server's
+ * console output. Once full, the oldest lines are overwritten
+ *
+ * @author Vector
+ */
+public class ConsoleBuffer {
+
+    /**
+     * Default number of lines kept by a console buffer
+     */
+    public static final int DEFAULT_CAPACITY = 5000;
+
+    private final String[] lines;
+    private long lineCount = 0;
+
+    public ConsoleBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConsoleBuffer(int capacity) {
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Gets the maximum number of lines kept by this buffer
+     * @return maximum number of lines kept by this buffer
+     */
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    /**
+     * Adds a line to this buffer, overwriting the oldest line if the buffer
+     * is full
+     * @param line line to add
+     */
+    public synchronized void add(String line) {
+        lines[(int) (lineCount % lines.length)] = line;
+        lineCount++;
+    }
+
+    /**
+     * Gets the total number of lines ever added to this buffer
+     * @return total number of lines ever added to this buffer
+     */
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Adds every line still held by this buffer, starting at the specified
+     * line number, to the target list
+     * @param fromLine number of the first line to copy
+     * @param target list the lines are added to
+     * @return number of the line following the last line copied
+     */
+    public synchronized long copyLinesSince(long fromLine, List<String> target) {
+        long firstLine = Math.max(fromLine, lineCount - lines.length);
+
+        for (long i = firstLine; i < lineCount; i++) {
+            target.add(lines[(int) (i % lines.length)]);
+        }
+
+        return lineCount;
+    }
+
+}
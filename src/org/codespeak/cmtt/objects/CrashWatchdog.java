@@ -0,0 +1,127 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.codespeak.cmtt.Configuration;
+import org.json.JSONObject;
+
+/**
+ * A class that keeps track of server crashes of a development profile. Each
+ * crash has the crash reports the server wrote and the tail of its output
+ * archived into a folder of its own, and restarts are delayed longer after
+ * each crash in a row
+ *
+ * @author Vector
+ */
+public class CrashWatchdog {
+
+    private static final Pattern WATCHDOG_PATTERN = Pattern.compile("The server has stopped responding!|A single server tick took|Watchdog Thread");
+    private static final int LOG_TAIL_LINES = 500;
+    private static final long BASE_RESTART_DELAY_MILLIS = 5000;
+    private static final long MAX_RESTART_DELAY_MILLIS = 5 * 60 * 1000;
+    private static final long STABLE_RUN_MILLIS = 10 * 60 * 1000;
+
+    private int consecutiveCrashes = 0;
+
+    /**
+     * Checks if a line of server output comes from the watchdog of the
+     * server, which reports a server that stopped ticking
+     * @param line line of server output
+     * @return if the line comes from the watchdog of the server
+     */
+    public static boolean isWatchdogLine(String line) {
+        return WATCHDOG_PATTERN.matcher(line).find();
+    }
+
+    private static void copyCrashReports(ServerLauncher launcher, Path archivePath) throws IOException {
+        Path crashReportsPath = launcher.getWorkingPath().resolve("crash-reports");
+
+        if (!Files.isDirectory(crashReportsPath)) {
+            return;
+        }
+
+        Path targetPath = archivePath.resolve("crash-reports");
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(crashReportsPath)) {
+            for (Path path : stream) {
+                if (Files.isRegularFile(path) && Files.getLastModifiedTime(path).toMillis() >= launcher.getLaunchTime()) {
+                    Files.createDirectories(targetPath);
+                    Files.copy(path, targetPath.resolve(path.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    /**
+     * Archives the crash reports and output tail of a crashed launch, and
+     * counts the crash towards the restart delay. A launch that ran for a
+     * while before crashing resets the count first
+     * @param launcher launcher of the server that crashed
+     * @param exitCode exit code of the server process
+     * @return folder the crash was archived to
+     * @throws IOException if the crash could not be archived
+     */
+    public synchronized Path crashed(ServerLauncher launcher, int exitCode) throws IOException {
+        long uptime = System.currentTimeMillis() - launcher.getLaunchTime();
+
+        if (uptime >= STABLE_RUN_MILLIS) {
+            consecutiveCrashes = 0;
+        }
+
+        consecutiveCrashes++;
+
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+        Path archivePath = Paths.get(Configuration.CRASHES_FOLDER, Integer.toString(launcher.getDevelopmentProfile().getId()),
+                                     sdf.format(new Date(launcher.getLaunchTime()))).toAbsolutePath();
+
+        Files.createDirectories(archivePath);
+
+        List<String> logTail = launcher.getOutputTail(LOG_TAIL_LINES);
+
+        Files.write(archivePath.resolve("output-tail.log"), logTail, StandardCharsets.UTF_8);
+
+        copyCrashReports(launcher, archivePath);
+
+        JSONObject json = new JSONObject();
+
+        json.put("server_profile", launcher.getServerProfile().getName());
+        json.put("java_profile", (launcher.getJavaProfile() != null ? launcher.getJavaProfile().getName() : "System"));
+        json.put("exit_code", exitCode);
+        json.put("watchdog_triggered", launcher.isWatchdogTriggered());
+        json.put("uptime", uptime);
+        json.put("consecutive_crashes", consecutiveCrashes);
+
+        Files.write(archivePath.resolve("crash.json"), json.toString(4).getBytes(StandardCharsets.UTF_8));
+
+        return archivePath;
+    }
+
+    /**
+     * Gets how long to wait before restarting after the latest crash. The
+     * delay doubles with each crash in a row, up to five minutes
+     * @return delay before restarting in milliseconds
+     */
+    public synchronized long getRestartDelay() {
+        int doublings = Math.min(Math.max(consecutiveCrashes - 1, 0), 16);
+
+        return Math.min(BASE_RESTART_DELAY_MILLIS << doublings, MAX_RESTART_DELAY_MILLIS);
+    }
+
+    /**
+     * Gets the number of crashes in a row
+     * @return number of crashes in a row
+     */
+    public synchronized int getConsecutiveCrashes() {
+        return consecutiveCrashes;
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.codespeak.cmtt.objects;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A class representing the outcome of a recursive delete
+ *
+ * @author Vector
+ */
+public class DeleteResult {
+
+    private static final int MAX_PATHS_SHOWN = 10;
+
+    private final long deletedCount;
+    private final List<Path> failedPaths;
+    private final boolean cancelled;
+
+    public DeleteResult(long deletedCount, List<Path> failedPaths, boolean cancelled) {
+        this.deletedCount = deletedCount;
+        this.failedPaths = Collections.unmodifiableList(failedPaths);
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Gets the number of files and folders that were deleted
+     * @return number of files and folders that were deleted
+     */
+    public long getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * Gets the files and folders that could not be deleted
+     * @return files and folders that could not be deleted
+     */
+    public List<Path> getFailedPaths() {
+        return failedPaths;
+    }
+
+    /**
+     * Gets if the delete was cancelled before it finished
+     * @return if the delete was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets if everything was deleted
+     * @return if everything was deleted
+     */
+    public boolean isComplete() {
+        return !cancelled && failedPaths.isEmpty();
+    }
+
+    /**
+     * Gets a message listing the first few files that could not be deleted
+     * @return message listing the files that could not be deleted, or an
+     * empty string if there were none
+     */
+    public String getFailureMessage() {
+        if (failedPaths.isEmpty()) {
+            return "";
+        }
+
+        int failedCount = failedPaths.size();
+        String message = failedCount + " file" + (failedCount > 1 ? "s" : "") + " could not be deleted:";
+
+        for (int i = 0; i < Math.min(MAX_PATHS_SHOWN, failedCount); i++) {
+            message += "\n" + failedPaths.get(i);
+        }
+
+        if (failedCount > MAX_PATHS_SHOWN) {
+            message += "\n...and " + (failedCount - MAX_PATHS_SHOWN) + " more";
+        }
+
+        return message;
+    }
+
+}
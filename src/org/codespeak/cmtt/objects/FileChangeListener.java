@@ -0,0 +1,18 @@
+package org.codespeak.cmtt.objects;
+
+import java.nio.file.Path;
+
+/**
+ * An interface for receiving changes to watched files
+ *
+ * @author Vector
+ */
+public interface FileChangeListener {
+
+    /**
+     * Called from the file watcher thread when a watched file changes
+     * @param path absolute path to the file that changed
+     */
+    public void fileChanged(Path path);
+
+}
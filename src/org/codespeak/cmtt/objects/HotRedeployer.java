@@ -0,0 +1,136 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import org.codespeak.cmtt.objects.handlers.FileWatchHandler;
+
+/**
+ * A class that copies rebuilt plugins into the plugins folder of a running
+ * server. Changes are debounced so a plugin is only copied once its build
+ * output has stopped changing and can be opened as a jarfile
+ *
+ * @author Vector
+ */
+public class HotRedeployer implements FileChangeListener {
+
+    private static final long DEBOUNCE_MILLIS = 1500;
+
+    private final List<Plugin> plugins;
+    private final Path pluginsLocation;
+    private final Set<Plugin> pendingPlugins = new LinkedHashSet<Plugin>();
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledRedeploy = null;
+
+    public HotRedeployer(List<Plugin> plugins, Path pluginsLocation) {
+        this.plugins = new ArrayList<Plugin>(plugins);
+        this.pluginsLocation = pluginsLocation;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+            Thread thread = new Thread(runnable, "Hot Redeploy");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    private boolean isCompleteJarfile(Path path) {
+        try (JarFile jarfile = new JarFile(path.toFile())) {
+            return jarfile.size() > 0;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private void redeploy() {
+        List<Plugin> redeployPlugins = null;
+
+        synchronized (pendingPlugins) {
+            redeployPlugins = new ArrayList<Plugin>(pendingPlugins);
+            pendingPlugins.clear();
+        }
+
+        List<Plugin> redeployedPlugins = new ArrayList<Plugin>();
+
+        for (Plugin plugin : redeployPlugins) {
+            Path path = plugin.getPath();
+
+            if (!path.toFile().exists()) {
+                continue;
+            }
+
+            if (!isCompleteJarfile(path)) {
+                schedule(plugin);
+
+                continue;
+            }
+
+            if (plugin.hasUpdate() && plugin.update(pluginsLocation)) {
+                redeployedPlugins.add(plugin);
+            }
+        }
+
+        if (!redeployedPlugins.isEmpty()) {
+            redeployed(redeployedPlugins);
+        }
+    }
+
+    private void schedule(Plugin plugin) {
+        synchronized (pendingPlugins) {
+            pendingPlugins.add(plugin);
+
+            if (scheduledRedeploy != null) {
+                scheduledRedeploy.cancel(false);
+            }
+
+            if (!scheduler.isShutdown()) {
+                scheduledRedeploy = scheduler.schedule(this::redeploy, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void fileChanged(Path path) {
+        for (Plugin plugin : plugins) {
+            if (plugin.getPath().toAbsolutePath().normalize().equals(path)) {
+                schedule(plugin);
+            }
+        }
+    }
+
+    /**
+     * Starts watching the plugins for changes
+     */
+    public void start() {
+        for (Plugin plugin : plugins) {
+            FileWatchHandler.getVersion(plugin.getPath());
+        }
+
+        FileWatchHandler.addListener(this);
+    }
+
+    /**
+     * Stops watching the plugins for changes
+     */
+    public void stop() {
+        FileWatchHandler.removeListener(this);
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Called from the redeploy thread after one or more plugins have been
+     * copied to the plugins folder
+     * @param redeployedPlugins plugins that were copied
+     */
+    public void redeployed(List<Plugin> redeployedPlugins) {
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package org.codespeak.cmtt.objects;
+
+/**
+ * An enum listing the timed phases of a server launch, in the order they
+ * happen
+ *
+ * @author Vector
+ */
+public enum LaunchPhase {
+
+    SERVER_UPDATE("server_update", "Server jar update"),
+    PLUGIN_SYNC("plugin_sync", "Plugin sync"),
+    PROCESS_SPAWN("process_spawn", "Process spawn"),
+    JVM_START("jvm_start", "JVM start"),
+    SERVER_START("server_start", "Server start");
+
+    private final String key;
+    private final String name;
+
+    private LaunchPhase(String key, String name) {
+        this.key = key;
+        this.name = name;
+    }
+
+    /**
+     * Gets the key of this phase used when saving launch records
+     * @return key of this phase
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the display name of this phase
+     * @return display name of this phase
+     */
+    public String getName() {
+        return name;
+    }
+
+}
@@ -0,0 +1,266 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.json.JSONObject;
+
+/**
+ * A class representing the timings of a single server launch
+ *
+ * @author Vector
+ */
+public class LaunchRecord {
+
+    private final long time;
+    private final int developmentProfileId;
+    private final int serverProfileId;
+    private final int javaProfileId;
+    private final String jvmFlags;
+    private final Map<LaunchPhase, Long> phaseTimes;
+    private final double reportedStartTime;
+    private final Map<String, String> pluginChecksums;
+    private long shutdownTime = -1;
+    private boolean forcedShutdown = false;
+
+    public LaunchRecord(long time, int developmentProfileId, int serverProfileId, int javaProfileId,
+                        String jvmFlags, Map<LaunchPhase, Long> phaseTimes, double reportedStartTime,
+                        Map<String, String> pluginChecksums) {
+        this.time = time;
+        this.developmentProfileId = developmentProfileId;
+        this.serverProfileId = serverProfileId;
+        this.javaProfileId = javaProfileId;
+        this.jvmFlags = jvmFlags;
+        this.phaseTimes = phaseTimes;
+        this.reportedStartTime = reportedStartTime;
+        this.pluginChecksums = pluginChecksums;
+    }
+
+    /**
+     * Gets the time this launch started, in milliseconds since the epoch
+     * @return time this launch started
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the ID of the development profile that was launched
+     * @return ID of the development profile that was launched
+     */
+    public int getDevelopmentProfileId() {
+        return developmentProfileId;
+    }
+
+    /**
+     * Gets the ID of the server profile that was launched
+     * @return ID of the server profile that was launched
+     */
+    public int getServerProfileId() {
+        return serverProfileId;
+    }
+
+    /**
+     * Gets the ID of the Java profile used for this launch, or 0 if the
+     * system Java environment was used
+     * @return ID of the Java profile used for this launch
+     */
+    public int getJavaProfileId() {
+        return javaProfileId;
+    }
+
+    /**
+     * Gets the JVM flags used for this launch
+     * @return JVM flags used for this launch
+     */
+    public String getJVMFlags() {
+        return jvmFlags;
+    }
+
+    /**
+     * Gets the time taken by the specified phase in milliseconds
+     * @param phase phase of the launch
+     * @return time taken by the phase in milliseconds, or -1 if it wasn't
+     * recorded
+     */
+    public long getPhaseTime(LaunchPhase phase) {
+        Long phaseTime = phaseTimes.get(phase);
+
+        return (phaseTime != null ? phaseTime : -1);
+    }
+
+    /**
+     * Gets the total time from starting the launch until the server finished
+     * starting, in milliseconds
+     * @return total time of this launch in milliseconds
+     */
+    public long getTotalTime() {
+        long total = 0;
+
+        for (long phaseTime : phaseTimes.values()) {
+            total += phaseTime;
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the start time reported by the server in its "Done" line, in
+     * seconds
+     * @return start time reported by the server, or -1 if not reported
+     */
+    public double getReportedStartTime() {
+        return reportedStartTime;
+    }
+
+    /**
+     * Gets the start time of this launch used for comparing launches. This
+     * is the time of the server start phase if available, otherwise the time
+     * reported by the server
+     * @return start time of this launch in seconds, or -1 if unknown
+     */
+    public double getStartTime() {
+        long serverStartTime = getPhaseTime(LaunchPhase.SERVER_START);
+
+        if (serverStartTime >= 0) {
+            return serverStartTime / 1000.0;
+        }
+
+        return reportedStartTime;
+    }
+
+    /**
+     * Gets the checksums of the plugins used by this launch, keyed by the
+     * path of each plugin
+     * @return checksums of the plugins used by this launch
+     */
+    public Map<String, String> getPluginChecksums() {
+        return pluginChecksums;
+    }
+
+    /**
+     * Records how long the server took to stop after it was asked to
+     * @param shutdownTime time taken to stop in milliseconds
+     * @param forcedShutdown whether the server had to be forcibly stopped
+     */
+    public void setShutdown(long shutdownTime, boolean forcedShutdown) {
+        this.shutdownTime = shutdownTime;
+        this.forcedShutdown = forcedShutdown;
+    }
+
+    /**
+     * Gets how long the server took to stop after it was asked to, in
+     * milliseconds
+     * @return time taken to stop in milliseconds, or -1 if the server wasn't
+     * asked to stop
+     */
+    public long getShutdownTime() {
+        return shutdownTime;
+    }
+
+    /**
+     * Gets whether the server had to be forcibly stopped because it didn't
+     * stop in time
+     * @return whether the server had to be forcibly stopped
+     */
+    public boolean isForcedShutdown() {
+        return forcedShutdown;
+    }
+
+    /**
+     * Converts this object to JSON
+     * @return JSON representation of this object
+     */
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        JSONObject phasesJson = new JSONObject();
+
+        for (Map.Entry<LaunchPhase, Long> entry : phaseTimes.entrySet()) {
+            phasesJson.put(entry.getKey().getKey(), entry.getValue());
+        }
+
+        json.put("time", time);
+        json.put("development_profile", developmentProfileId);
+        json.put("server_profile", serverProfileId);
+        json.put("java_profile", javaProfileId);
+        json.put("jvm_flags", jvmFlags);
+        json.put("phases", phasesJson);
+        json.put("reported_start_time", reportedStartTime);
+        json.put("plugins", new JSONObject(pluginChecksums));
+
+        if (shutdownTime >= 0) {
+            json.put("shutdown_time", shutdownTime);
+            json.put("forced_shutdown", forcedShutdown);
+        }
+
+        return json;
+    }
+
+    /**
+     * Creates a LaunchRecord object from JSON
+     * @param json JSON representation of a LaunchRecord object
+     * @return LaunchRecord object represented by JSON
+     */
+    public static LaunchRecord fromJSON(JSONObject json) {
+        long time = 0;
+        int developmentProfileId = 0;
+        int serverProfileId = 0;
+        int javaProfileId = 0;
+        String jvmFlags = "";
+        Map<LaunchPhase, Long> phaseTimes = new EnumMap<LaunchPhase, Long>(LaunchPhase.class);
+        double reportedStartTime = -1;
+        Map<String, String> pluginChecksums = new HashMap<String, String>();
+
+        if (json.has("time")) {
+            time = json.getLong("time");
+        }
+
+        if (json.has("development_profile")) {
+            developmentProfileId = json.getInt("development_profile");
+        }
+
+        if (json.has("server_profile")) {
+            serverProfileId = json.getInt("server_profile");
+        }
+
+        if (json.has("java_profile")) {
+            javaProfileId = json.getInt("java_profile");
+        }
+
+        if (json.has("jvm_flags")) {
+            jvmFlags = json.getString("jvm_flags");
+        }
+
+        if (json.has("phases")) {
+            JSONObject phasesJson = json.getJSONObject("phases");
+
+            for (LaunchPhase phase : LaunchPhase.values()) {
+                if (phasesJson.has(phase.getKey())) {
+                    phaseTimes.put(phase, phasesJson.getLong(phase.getKey()));
+                }
+            }
+        }
+
+        if (json.has("reported_start_time")) {
+            reportedStartTime = json.getDouble("reported_start_time");
+        }
+
+        if (json.has("plugins")) {
+            JSONObject pluginsJson = json.getJSONObject("plugins");
+
+            for (String key : pluginsJson.keySet()) {
+                pluginChecksums.put(key, pluginsJson.getString(key));
+            }
+        }
+
+        LaunchRecord record = new LaunchRecord(time, developmentProfileId, serverProfileId, javaProfileId,
+                                               jvmFlags, phaseTimes, reportedStartTime, pluginChecksums);
+
+        if (json.has("shutdown_time")) {
+            record.setShutdown(json.getLong("shutdown_time"), json.optBoolean("forced_shutdown"));
+        }
+
+        return record;
+    }
+
+}
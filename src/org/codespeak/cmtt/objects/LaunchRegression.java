@@ -0,0 +1,106 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.List;
+
+/**
+ * A class describing a launch that started slower than its baseline
+ *
+ * @author Vector
+ */
+public class LaunchRegression {
+
+    private final double startTime;
+    private final double baselineMean;
+    private final double baselineDeviation;
+    private final int baselineLaunches;
+    private final List<String> changedPlugins;
+    private final boolean jvmChanged;
+
+    public LaunchRegression(double startTime, double baselineMean, double baselineDeviation, int baselineLaunches,
+                            List<String> changedPlugins, boolean jvmChanged) {
+        this.startTime = startTime;
+        this.baselineMean = baselineMean;
+        this.baselineDeviation = baselineDeviation;
+        this.baselineLaunches = baselineLaunches;
+        this.changedPlugins = changedPlugins;
+        this.jvmChanged = jvmChanged;
+    }
+
+    /**
+     * Gets the start time of the slow launch in seconds
+     * @return start time of the slow launch in seconds
+     */
+    public double getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets the mean start time of the baseline launches in seconds
+     * @return mean start time of the baseline launches in seconds
+     */
+    public double getBaselineMean() {
+        return baselineMean;
+    }
+
+    /**
+     * Gets the standard deviation of the baseline start times in seconds
+     * @return standard deviation of the baseline start times in seconds
+     */
+    public double getBaselineDeviation() {
+        return baselineDeviation;
+    }
+
+    /**
+     * Gets the number of launches in the baseline
+     * @return number of launches in the baseline
+     */
+    public int getBaselineLaunches() {
+        return baselineLaunches;
+    }
+
+    /**
+     * Gets the paths of plugins that were added or changed since the most
+     * recent baseline launch
+     * @return paths of plugins that were added or changed
+     */
+    public List<String> getChangedPlugins() {
+        return changedPlugins;
+    }
+
+    /**
+     * Gets if the Java profile or JVM flags changed since the most recent
+     * baseline launch
+     * @return if the Java profile or JVM flags changed
+     */
+    public boolean isJVMChanged() {
+        return jvmChanged;
+    }
+
+    /**
+     * Gets a message describing this regression
+     * @return message describing this regression
+     */
+    public String getMessage() {
+        String message = String.format("The server took %.2fs to start, compared to a baseline of %.2fs (standard deviation %.2fs) over %d launches.",
+                                       startTime, baselineMean, baselineDeviation, baselineLaunches);
+
+        if (!changedPlugins.isEmpty()) {
+            message += "\n\nPlugins changed since the last baseline launch:";
+
+            for (String plugin : changedPlugins) {
+                message += "\n" + plugin;
+            }
+        }
+
+        if (jvmChanged) {
+            message += "\n\nThe Java profile or JVM flags also changed since the last baseline launch.";
+        }
+
+        if (changedPlugins.isEmpty() && !jvmChanged) {
+            message += "\n\nNo plugin or JVM changes were found since the last baseline launch.";
+        }
+
+        return message;
+    }
+
+}
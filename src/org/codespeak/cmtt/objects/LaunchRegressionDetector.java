@@ -0,0 +1,100 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.codespeak.cmtt.util.StatisticsUtil;
+
+/**
+ * A class that compares a launch against the rolling baseline of previous
+ * launches of the same development and server profile
+ *
+ * @author Vector
+ */
+public class LaunchRegressionDetector {
+
+    /**
+     * Number of previous launches used as the baseline
+     */
+    public static final int BASELINE_LAUNCHES = 20;
+
+    /**
+     * Minimum number of previous launches needed before launches are checked
+     */
+    public static final int MINIMUM_BASELINE_LAUNCHES = 5;
+
+    /**
+     * Minimum number of seconds a launch must take over the baseline mean to
+     * be considered a regression, so profiles with very consistent launches
+     * are not flagged for differences of a few milliseconds
+     */
+    public static final double MINIMUM_REGRESSION_SECONDS = 0.5;
+
+    /**
+     * Checks if the specified launch started slower than the baseline
+     * @param record launch to check
+     * @param history previous launches of the same development profile,
+     * oldest first. The launch being checked may be included as the last
+     * element
+     * @param threshold number of standard deviations above the baseline mean
+     * a launch must take to be considered a regression, in addition to
+     * {@link #MINIMUM_REGRESSION_SECONDS}
+     * @return regression if the launch is slower than the baseline,
+     * otherwise null
+     */
+    public static LaunchRegression check(LaunchRecord record, List<LaunchRecord> history, double threshold) {
+        double startTime = record.getStartTime();
+
+        if (startTime < 0) {
+            return null;
+        }
+
+        List<LaunchRecord> baseline = new ArrayList<LaunchRecord>();
+
+        for (int i = history.size() - 1; i >= 0 && baseline.size() < BASELINE_LAUNCHES; i--) {
+            LaunchRecord previous = history.get(i);
+
+            if (previous.getTime() >= record.getTime() || previous.getServerProfileId() != record.getServerProfileId()
+                    || previous.getStartTime() < 0) {
+                continue;
+            }
+
+            baseline.add(0, previous);
+        }
+
+        if (baseline.size() < MINIMUM_BASELINE_LAUNCHES) {
+            return null;
+        }
+
+        double[] startTimes = new double[baseline.size()];
+
+        for (int i = 0; i < startTimes.length; i++) {
+            startTimes[i] = baseline.get(i).getStartTime();
+        }
+
+        double mean = StatisticsUtil.mean(startTimes);
+        double deviation = StatisticsUtil.standardDeviation(startTimes);
+
+        if (startTime <= mean + threshold * deviation || startTime - mean < MINIMUM_REGRESSION_SECONDS) {
+            return null;
+        }
+
+        LaunchRecord lastBaseline = baseline.get(baseline.size() - 1);
+        Map<String, String> baselineChecksums = lastBaseline.getPluginChecksums();
+        List<String> changedPlugins = new ArrayList<String>();
+
+        for (Map.Entry<String, String> entry : record.getPluginChecksums().entrySet()) {
+            String baselineChecksum = baselineChecksums.get(entry.getKey());
+
+            if (baselineChecksum == null || !baselineChecksum.equals(entry.getValue())) {
+                changedPlugins.add(entry.getKey());
+            }
+        }
+
+        boolean jvmChanged = lastBaseline.getJavaProfileId() != record.getJavaProfileId()
+                          || !lastBaseline.getJVMFlags().equals(record.getJVMFlags());
+
+        return new LaunchRegression(startTime, mean, deviation, baseline.size(), changedPlugins, jvmChanged);
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.codespeak.cmtt.profiles.DevelopmentProfile;
+import org.codespeak.cmtt.profiles.JavaProfile;
+import org.codespeak.cmtt.profiles.ServerProfile;
+
+/**
+ * A class that times the phases of a server launch. Phases are completed in
+ * order, each one taking the time since the previous phase completed. The
+ * JVM start phase is completed by the server's first line of output, and the
+ * server start phase once the server answers status requests
+ *
+ * @author Vector
+ */
+public class LaunchTimer {
+
+    private static final Pattern DONE_PATTERN = Pattern.compile("Done \\((\\d+)[.,](\\d+)s\\)");
+
+    private final long time = System.currentTimeMillis();
+    private final int developmentProfileId;
+    private final int serverProfileId;
+    private final int javaProfileId;
+    private final String jvmFlags;
+    private final Map<LaunchPhase, Long> phaseTimes = new EnumMap<LaunchPhase, Long>(LaunchPhase.class);
+    private final Map<String, String> pluginChecksums = new HashMap<String, String>();
+    private double reportedStartTime = -1;
+    private long lastMark = System.nanoTime();
+    private boolean finished = false;
+
+    public LaunchTimer(DevelopmentProfile developmentProfile, ServerProfile serverProfile, JavaProfile javaProfile) {
+        this.developmentProfileId = developmentProfile.getId();
+        this.serverProfileId = serverProfile.getId();
+        this.javaProfileId = (javaProfile != null ? javaProfile.getId() : 0);
+        this.jvmFlags = getJVMFlags(developmentProfile);
+    }
+
+    private static String getJVMFlags(DevelopmentProfile developmentProfile) {
+        StringBuilder sb = new StringBuilder();
+        String jvmFlagsString = developmentProfile.getJVMFlagsString();
+        String lowerMemory = developmentProfile.getLowerMemory();
+        String upperMemory = developmentProfile.getUpperMemory();
+
+        if (jvmFlagsString != null && !jvmFlagsString.isEmpty()) {
+            sb.append(jvmFlagsString);
+        }
+
+        if (lowerMemory != null && !lowerMemory.isEmpty()) {
+            sb.append(sb.length() > 0 ? " " : "").append("-Xms").append(lowerMemory);
+        }
+
+        if (upperMemory != null && !upperMemory.isEmpty()) {
+            sb.append(sb.length() > 0 ? " " : "").append("-Xmx").append(upperMemory);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Completes the specified phase, recording the time since the previous
+     * phase was completed
+     * @param phase phase to complete
+     */
+    public synchronized void completePhase(LaunchPhase phase) {
+        long now = System.nanoTime();
+
+        phaseTimes.put(phase, (now - lastMark) / 1000000);
+        lastMark = now;
+    }
+
+    /**
+     * Records the checksums of the plugins used by this launch
+     * @param plugins plugins used by this launch
+     */
+    public synchronized void setPlugins(List<Plugin> plugins) {
+        pluginChecksums.clear();
+
+        for (Plugin plugin : plugins) {
+            pluginChecksums.put(plugin.getPath().toString(), plugin.getChecksum());
+        }
+    }
+
+    /**
+     * Processes a line of server output. The first line completes the JVM
+     * start phase, and the start time the server reports in its "Done" line
+     * is recorded
+     * @param line line of server output
+     */
+    public void lineRead(String line) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+
+            if (!phaseTimes.containsKey(LaunchPhase.JVM_START)) {
+                completePhase(LaunchPhase.JVM_START);
+            }
+        }
+
+        Matcher matcher = DONE_PATTERN.matcher(line);
+
+        if (matcher.find()) {
+            synchronized (this) {
+                reportedStartTime = Double.parseDouble(matcher.group(1) + "." + matcher.group(2));
+            }
+        }
+    }
+
+    /**
+     * Finishes the launch once the server answers status requests
+     * @return launch record the first time this is called, otherwise null
+     */
+    public synchronized LaunchRecord serverReady() {
+        if (finished) {
+            return null;
+        }
+
+        if (!phaseTimes.containsKey(LaunchPhase.JVM_START)) {
+            completePhase(LaunchPhase.JVM_START);
+        }
+
+        completePhase(LaunchPhase.SERVER_START);
+        finished = true;
+
+        return new LaunchRecord(time, developmentProfileId, serverProfileId, javaProfileId,
+                                jvmFlags, new EnumMap<LaunchPhase, Long>(phaseTimes), reportedStartTime,
+                                new HashMap<String, String>(pluginChecksums));
+    }
+
+}
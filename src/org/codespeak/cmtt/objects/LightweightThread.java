@@ -0,0 +1,72 @@
+package org.codespeak.cmtt.objects;
+
+import org.codespeak.cmtt.util.ThreadUtil;
+
+/**
+ * A task that runs on a thread of its own, which is a virtual thread when
+ * the runtime supports them. Used for the threads that mostly wait on a
+ * server process, so each server only costs a few small stacks
+ *
+ * @author Vector
+ */
+public abstract class LightweightThread implements Runnable {
+
+    private final String name;
+    private volatile Thread thread = null;
+
+    public LightweightThread(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of this thread
+     * @return name of this thread
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Starts running this task on a new thread
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException(name + " has already been started");
+        }
+
+        thread = ThreadUtil.newThread(name, this);
+        thread.start();
+    }
+
+    /**
+     * Interrupts the thread running this task
+     */
+    public void interrupt() {
+        Thread currentThread = thread;
+
+        if (currentThread != null) {
+            currentThread.interrupt();
+        }
+    }
+
+    /**
+     * Gets if the thread running this task is still alive
+     * @return if the thread running this task is still alive
+     */
+    public boolean isAlive() {
+        Thread currentThread = thread;
+
+        return currentThread != null && currentThread.isAlive();
+    }
+
+    /**
+     * Gets if the thread running this task has been interrupted
+     * @return if the thread running this task has been interrupted
+     */
+    public boolean isInterrupted() {
+        Thread currentThread = thread;
+
+        return currentThread != null && currentThread.isInterrupted();
+    }
+
+}
@@ -2,15 +2,19 @@ package org.codespeak.cmtt.objects;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import org.codespeak.cmtt.util.MiscUtil;
+import org.codespeak.cmtt.objects.handlers.ChecksumCacheHandler;
+import org.codespeak.cmtt.objects.handlers.FileWatchHandler;
+import org.codespeak.cmtt.objects.handlers.JarStoreHandler;
 import org.json.JSONObject;
 
 /**
- * A class representing a plugin that is used with a development profile
+ * A class representing a plugin that is used with a development profile.
+ * Plugins are checked and copied on background threads while the JavaFX
+ * thread uses them, so access to their state is synchronized. Files are only
+ * read and copied outside of the lock, so the JavaFX thread never waits on
+ * them
  *
  * @author Vector
  */
@@ -19,6 +23,8 @@ public class Plugin implements Cloneable {
     private int id;
     private Path path;
     private String checksum;
+    private long checkedVersion = FileWatchHandler.UNTRACKED;
+    private final Object updateLock = new Object();
     
     public Plugin(int id, Path path) {
         this(id, path, "");
@@ -42,7 +48,7 @@ public class Plugin implements Cloneable {
      * Gets the path to this plugin
      * @return path to this plugin
      */
-    public Path getPath() {
+    public synchronized Path getPath() {
         return path;
     }
     
@@ -50,15 +56,16 @@ public class Plugin implements Cloneable {
      * Sets the path to this plugin
      * @param path path to this plugin
      */
-    public void setPath(Path path) {
+    public synchronized void setPath(Path path) {
         this.path = path;
+        this.checkedVersion = FileWatchHandler.UNTRACKED;
     }
     
     /**
      * Gets the file name of this plugin
      * @return file name of this plugin
      */
-    public String getFileName() {
+    public synchronized String getFileName() {
         return path.getFileName().toString();
     }
     
@@ -66,7 +73,7 @@ public class Plugin implements Cloneable {
      * Gets the checksum of this plugin
      * @return checksum of this plugin
      */
-    public String getChecksum() {
+    public synchronized String getChecksum() {
         return checksum;
     }
 
@@ -74,8 +81,9 @@ public class Plugin implements Cloneable {
      * Sets the checksum of this plugin
      * @param checksum checksum of this plugin
      */
-    public void setChecksum(String checksum) {
+    public synchronized void setChecksum(String checksum) {
         this.checksum = checksum;
+        this.checkedVersion = FileWatchHandler.UNTRACKED;
     }
     
     /**
@@ -83,7 +91,7 @@ public class Plugin implements Cloneable {
      * @param pathString path string to check
      * @return if this path is equivalent to the specified path string
      */
-    public boolean isPath(String pathString) {
+    public synchronized boolean isPath(String pathString) {
         String currentPathString = path.toString();
         
         return currentPathString.equals(pathString);
@@ -93,7 +101,7 @@ public class Plugin implements Cloneable {
      * Gets a copy of this Plugin object
      * @return copy of this Plugin object
      */
-    public Plugin copy() {
+    public synchronized Plugin copy() {
         return new Plugin(id, Paths.get(path.toString()), checksum);
     }
 
@@ -104,7 +112,7 @@ public class Plugin implements Cloneable {
      * @return if the plugin file in the plugins folder exists
      */
     public boolean hasPluginFile(Path pluginsFolderLocation) {
-        Path pluginLocation = pluginsFolderLocation.resolve(path.getFileName());
+        Path pluginLocation = pluginsFolderLocation.resolve(getPath().getFileName());
         
         return pluginLocation.toFile().exists();
     }
@@ -114,7 +122,7 @@ public class Plugin implements Cloneable {
      * @return if this plugin can update
      */
     public boolean canUpdate() {
-        if (!path.toFile().exists()) {
+        if (!getPath().toFile().exists()) {
             return false;
         }
         
@@ -126,9 +134,24 @@ public class Plugin implements Cloneable {
      * @return if this plugin has an update
      */
     public boolean hasUpdate() {
-        String currentChecksum = MiscUtil.getChecksum(path);
+        Path checkPath = getPath();
+        long version = FileWatchHandler.getVersion(checkPath);
+        
+        synchronized (this) {
+            if (checkedVersion != FileWatchHandler.UNTRACKED && version != checkedVersion) {
+                ChecksumCacheHandler.invalidate(checkPath);
+            }
+        }
+        
+        String currentChecksum = ChecksumCacheHandler.getChecksum(checkPath);
+        
+        synchronized (this) {
+            if (path.equals(checkPath)) {
+                checkedVersion = version;
+            }
 
-        return !currentChecksum.equals(checksum);            
+            return !currentChecksum.equals(checksum);
+        }
     }
     
     /**
@@ -136,21 +159,31 @@ public class Plugin implements Cloneable {
      * sure that the plugin directory exists as well
      * @param pluginsLocation location of the plugins folder this plugin
      * resides in 
+     * @return if this plugin was copied successfully
      */
-    public void update(Path pluginsLocation) {
-        File filePluginsLocation = pluginsLocation.toFile();
-        Path pluginFilePath = pluginsLocation.resolve(path.getFileName().toString());
-        
-        if (!filePluginsLocation.exists()) {
-            filePluginsLocation.mkdirs();
-        }
+    public boolean update(Path pluginsLocation) {
+        synchronized (updateLock) {
+            Path sourcePath = getPath();
+            File filePluginsLocation = pluginsLocation.toFile();
+            Path pluginFilePath = pluginsLocation.resolve(sourcePath.getFileName().toString());
+
+            if (!filePluginsLocation.exists()) {
+                filePluginsLocation.mkdirs();
+            }
 
-        try {
-            Files.copy(path, pluginFilePath, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                long version = FileWatchHandler.getVersion(sourcePath);
+                String placedChecksum = JarStoreHandler.place(sourcePath, pluginFilePath);
 
-            checksum = MiscUtil.getChecksum(path);
-        } catch (IOException ex) {
+                synchronized (this) {
+                    checksum = placedChecksum;
+                    checkedVersion = version;
+                }
 
+                return true;
+            } catch (IOException ex) {
+                return false;
+            }
         }
     }
     
@@ -158,7 +191,7 @@ public class Plugin implements Cloneable {
      * Converts this object to JSON
      * @return JSON representation of this object
      */
-    public JSONObject toJSON() {
+    public synchronized JSONObject toJSON() {
         JSONObject json = new JSONObject();
         
         json.put("id", id);
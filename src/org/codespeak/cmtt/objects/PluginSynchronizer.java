@@ -0,0 +1,163 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A class that synchronizes the plugins of a development profile with its
+ * plugins folder. Each plugin is hashed, compared and copied on a bounded
+ * pool of worker threads, and every plugin is processed even if copying
+ * another one fails
+ *
+ * @author Vector
+ */
+public class PluginSynchronizer {
+
+    private static final int MAX_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static ExecutorService executor = null;
+
+    private final List<Plugin> plugins;
+    private final Path pluginsLocation;
+    private final boolean updateOutdated;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+
+            executor = Executors.newFixedThreadPool(MAX_THREADS, (Runnable runnable) -> {
+                Thread thread = new Thread(runnable, "Plugin Sync " + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        }
+
+        return executor;
+    }
+
+    /**
+     * Creates a plugin synchronizer
+     * @param plugins plugins to synchronize
+     * @param pluginsLocation location of the plugins folder
+     * @param updateOutdated whether plugins already in the plugins folder are
+     * replaced if their source file has changed
+     */
+    public PluginSynchronizer(List<Plugin> plugins, Path pluginsLocation, boolean updateOutdated) {
+        this.plugins = plugins;
+        this.pluginsLocation = pluginsLocation;
+        this.updateOutdated = updateOutdated;
+    }
+
+    private void synchronizePlugin(Plugin plugin) {
+        try {
+            boolean sourceExists = plugin.getPath().toFile().exists();
+
+            if (!sourceExists) {
+                failed.incrementAndGet();
+                failures.add(plugin.getFileName() + " could not be found at " + plugin.getPath() + ".");
+            } else if (!plugin.hasPluginFile(pluginsLocation) || (updateOutdated && plugin.hasUpdate())) {
+                if (plugin.update(pluginsLocation)) {
+                    updated.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                    failures.add(plugin.getFileName() + " could not be copied.");
+                }
+            }
+        } finally {
+            progress(completed.incrementAndGet(), plugins.size());
+        }
+    }
+
+    /**
+     * Synchronizes all plugins, blocking until every plugin has been processed
+     * @throws IOException if any plugin could not be found or copied, after
+     * every plugin has been processed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void synchronize() throws IOException, InterruptedException {
+        if (plugins.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(pluginsLocation);
+        } catch (IOException ex) {
+
+        }
+
+        ExecutorService service = getExecutor();
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+
+        for (Plugin plugin : plugins) {
+            futures.add(service.submit(() -> synchronizePlugin(plugin)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+
+                failed.incrementAndGet();
+                failures.add(plugins.get(i).getFileName() + " could not be copied: " + cause.getMessage());
+            } catch (InterruptedException ex) {
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+
+                throw ex;
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IOException(String.join("\n", failures));
+        }
+    }
+
+    /**
+     * Gets the number of plugins that were copied to the plugins folder
+     * @return number of plugins that were copied to the plugins folder
+     */
+    public int getUpdatedCount() {
+        return updated.get();
+    }
+
+    /**
+     * Gets the number of plugins that could not be copied
+     * @return number of plugins that could not be copied
+     */
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Gets the number of plugins that were already up-to-date
+     * @return number of plugins that were already up-to-date
+     */
+    public int getUpToDateCount() {
+        return completed.get() - updated.get() - failed.get();
+    }
+
+    /**
+     * Called from a worker thread after each plugin has been processed
+     * @param completed number of plugins processed so far
+     * @param total total number of plugins
+     */
+    public void progress(int completed, int total) {
+
+    }
+
+}
@@ -0,0 +1,280 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A class that samples the resident memory, CPU time, threads and open file
+ * descriptors of a server process from /proc, keeping the peaks of each.
+ * When the server was started through a shell, the Java process below the
+ * shell is sampled instead. All monitors share a single sampling thread, and
+ * nothing is sampled on systems without /proc
+ *
+ * @author Vector
+ */
+public class ProcessMonitor {
+
+    private static final Path PROC_PATH = Paths.get("/proc");
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000;
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final int MAX_SEARCH_DEPTH = 4;
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+        Thread thread = new Thread(runnable, "Process Monitor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+
+        return thread;
+    });
+
+    private final Process process;
+    private final long time = System.currentTimeMillis();
+    private final int developmentProfileId;
+    private final int serverProfileId;
+    private final String upperMemory;
+    private ScheduledFuture<?> future = null;
+    private long pid = -1;
+    private long peakResidentMemory = 0;
+    private long cpuTicks = 0;
+    private double peakCPUUsage = 0;
+    private int peakThreads = 0;
+    private int peakFileDescriptors = 0;
+    private long lastSampleTime = -1;
+    private int sampleCount = 0;
+
+    public ProcessMonitor(Process process, int developmentProfileId, int serverProfileId, String upperMemory) {
+        this.process = process;
+        this.developmentProfileId = developmentProfileId;
+        this.serverProfileId = serverProfileId;
+        this.upperMemory = (upperMemory != null ? upperMemory : "");
+    }
+
+    /**
+     * Gets if process resources can be sampled on this system
+     * @return if process resources can be sampled on this system
+     */
+    public static boolean isSupported() {
+        return Files.isReadable(PROC_PATH.resolve("self").resolve("stat"));
+    }
+
+    /**
+     * Gets the process ID of a process
+     * @param process process to get the ID of
+     * @return process ID, or -1 if it could not be found
+     */
+    public static long getProcessId(Process process) {
+        try {
+            Method pidMethod = Process.class.getMethod("pid");
+
+            return (Long) pidMethod.invoke(process);
+        } catch (ReflectiveOperationException ex) {
+
+        }
+
+        try {
+            Field pidField = process.getClass().getDeclaredField("pid");
+            pidField.setAccessible(true);
+
+            return pidField.getInt(process);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return -1;
+        }
+    }
+
+    private static String readFile(long pid, String name) throws IOException {
+        return new String(Files.readAllBytes(PROC_PATH.resolve(Long.toString(pid)).resolve(name)), StandardCharsets.UTF_8);
+    }
+
+    private static String[] readStatFields(long pid) throws IOException {
+        String stat = readFile(pid, "stat");
+
+        // The command name is in parentheses and may itself contain spaces
+        return stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+    }
+
+    private static boolean isJava(long pid) {
+        try {
+            String name = readFile(pid, "comm").trim();
+
+            return name.equals("java") || name.equals("javaw");
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static List<Long> getChildren(long pid) {
+        List<Long> children = new ArrayList<Long>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(PROC_PATH, "[0-9]*")) {
+            for (Path path : stream) {
+                long childPid = Long.parseLong(path.getFileName().toString());
+
+                try {
+                    if (Long.parseLong(readStatFields(childPid)[1]) == pid) {
+                        children.add(childPid);
+                    }
+                } catch (IOException | RuntimeException ex) {
+
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+
+        }
+
+        return children;
+    }
+
+    /**
+     * Finds the Java process started for a server. The server process itself
+     * is used if it is Java, otherwise its descendants are searched
+     * @param process server process
+     * @return process ID of the Java process, or -1 if it hasn't been
+     * started yet
+     */
+    public static long findJavaProcessId(Process process) {
+        long rootPid = getProcessId(process);
+
+        if (rootPid == -1) {
+            return -1;
+        }
+
+        Deque<long[]> queue = new ArrayDeque<long[]>();
+        queue.add(new long[] {rootPid, 0});
+
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+
+            if (isJava(entry[0])) {
+                return entry[0];
+            }
+
+            if (entry[1] < MAX_SEARCH_DEPTH) {
+                for (long childPid : getChildren(entry[0])) {
+                    queue.add(new long[] {childPid, entry[1] + 1});
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private static int countFileDescriptors(long pid) {
+        int count = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(PROC_PATH.resolve(Long.toString(pid)).resolve("fd"))) {
+            for (Path path : stream) {
+                count++;
+            }
+        } catch (IOException ex) {
+
+        }
+
+        return count;
+    }
+
+    private static long readResidentMemory(long pid) throws IOException {
+        for (String line : readFile(pid, "status").split("\n")) {
+            if (line.startsWith("VmRSS:")) {
+                String[] parts = line.substring(6).trim().split("\\s+");
+
+                return Long.parseLong(parts[0]) * 1024;
+            }
+        }
+
+        return 0;
+    }
+
+    private synchronized void sample() {
+        if (!process.isAlive()) {
+            return;
+        }
+
+        if (pid == -1) {
+            pid = findJavaProcessId(process);
+
+            if (pid == -1) {
+                return;
+            }
+        }
+
+        try {
+            String[] fields = readStatFields(pid);
+            long now = System.nanoTime();
+            long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+            int threads = Integer.parseInt(fields[17]);
+
+            if (lastSampleTime != -1) {
+                double elapsedSeconds = (now - lastSampleTime) / 1000000000.0;
+                double usage = (ticks - cpuTicks) / (double) CLOCK_TICKS_PER_SECOND / elapsedSeconds;
+
+                peakCPUUsage = Math.max(peakCPUUsage, usage);
+            }
+
+            cpuTicks = ticks;
+            lastSampleTime = now;
+            peakThreads = Math.max(peakThreads, threads);
+            peakResidentMemory = Math.max(peakResidentMemory, readResidentMemory(pid));
+            peakFileDescriptors = Math.max(peakFileDescriptors, countFileDescriptors(pid));
+            sampleCount++;
+        } catch (IOException | RuntimeException ex) {
+
+        }
+    }
+
+    /**
+     * Starts sampling the server process. Does nothing if process resources
+     * can't be sampled on this system
+     */
+    public synchronized void start() {
+        if (future != null || !isSupported()) {
+            return;
+        }
+
+        future = scheduler.scheduleWithFixedDelay(this::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling the server process
+     */
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Gets the process ID of the Java process being sampled
+     * @return process ID of the Java process being sampled, or -1 if it
+     * hasn't been found
+     */
+    public synchronized long getProcessId() {
+        return pid;
+    }
+
+    /**
+     * Gets the peak resource usage sampled so far
+     * @return peak resource usage, or null if nothing has been sampled
+     */
+    public synchronized ResourceUsage getUsage() {
+        if (sampleCount == 0) {
+            return null;
+        }
+
+        return new ResourceUsage(time, developmentProfileId, serverProfileId, upperMemory, peakResidentMemory,
+                                 cpuTicks * 1000 / CLOCK_TICKS_PER_SECOND, peakCPUUsage, peakThreads, peakFileDescriptors);
+    }
+
+}
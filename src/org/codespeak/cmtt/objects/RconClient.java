@@ -0,0 +1,327 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.codespeak.cmtt.util.ThreadUtil;
+
+/**
+ * A client for the RCON protocol of a Minecraft server. A single connection
+ * is kept open and commands are queued, since the server reads one packet
+ * per socket read and drops the connection if two packets arrive together.
+ * Each command is written once the previous one has been answered. When a
+ * response fills a whole packet, a marker packet is sent after it so the
+ * rest of a response split over several packets is put back together
+ *
+ * @author Vector
+ */
+public class RconClient implements Closeable {
+
+    private static final int TYPE_RESPONSE = 0;
+    private static final int TYPE_COMMAND = 2;
+    private static final int TYPE_LOGIN = 3;
+    // Responses are split every 4096 characters, each up to 3 bytes in UTF-8
+    private static final int MAX_PACKET_LENGTH = 4096 * 3 + 10;
+    private static final int MAX_COMMAND_LENGTH = 1446;
+    private static final int SPLIT_RESPONSE_LENGTH = 4000;
+
+    private final InetSocketAddress address;
+    private final AtomicInteger requestCounter = new AtomicInteger();
+    private final Deque<PendingCommand> queuedCommands = new ArrayDeque<PendingCommand>();
+    private PendingCommand currentCommand = null;
+    private Socket socket = null;
+    private OutputStream out = null;
+    private Thread readThread = null;
+    private volatile boolean connected = false;
+
+    private static class PendingCommand {
+
+        private final String command;
+        private final StringBuilder response = new StringBuilder();
+        private final CompletableFuture<String> future = new CompletableFuture<String>();
+        private int requestId = -1;
+        private int markerId = -1;
+
+        private PendingCommand(String command) {
+            this.command = command;
+        }
+
+    }
+
+    private static class Packet {
+
+        private final int requestId;
+        private final int type;
+        private final String payload;
+
+        private Packet(int requestId, int type, String payload) {
+            this.requestId = requestId;
+            this.type = type;
+            this.payload = payload;
+        }
+
+    }
+
+    public RconClient(InetSocketAddress address) {
+        this.address = address;
+    }
+
+    private void writePacket(int requestId, int type, String payload) throws IOException {
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 4 + payloadBytes.length + 2).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(4 + 4 + payloadBytes.length + 2);
+        buffer.putInt(requestId);
+        buffer.putInt(type);
+        buffer.put(payloadBytes);
+        buffer.put((byte) 0);
+        buffer.put((byte) 0);
+
+        synchronized (out) {
+            out.write(buffer.array());
+            out.flush();
+        }
+    }
+
+    private static int readIntLE(DataInputStream in) throws IOException {
+        return Integer.reverseBytes(in.readInt());
+    }
+
+    private static Packet readPacket(DataInputStream in) throws IOException {
+        int length = readIntLE(in);
+
+        if (length < 10 || length > MAX_PACKET_LENGTH) {
+            throw new IOException("Invalid RCON packet length: " + length);
+        }
+
+        int requestId = readIntLE(in);
+        int type = readIntLE(in);
+        byte[] payload = new byte[length - 8];
+
+        in.readFully(payload);
+
+        int payloadLength = 0;
+
+        while (payloadLength < payload.length && payload[payloadLength] != 0) {
+            payloadLength++;
+        }
+
+        return new Packet(requestId, type, new String(payload, 0, payloadLength, StandardCharsets.UTF_8));
+    }
+
+    private void writeNextCommand() {
+        PendingCommand command = null;
+
+        synchronized (queuedCommands) {
+            if (currentCommand != null || queuedCommands.isEmpty()) {
+                return;
+            }
+
+            command = queuedCommands.poll();
+            command.requestId = requestCounter.incrementAndGet();
+            currentCommand = command;
+        }
+
+        try {
+            writePacket(command.requestId, TYPE_COMMAND, command.command);
+        } catch (IOException ex) {
+            disconnected(ex);
+        }
+    }
+
+    private void commandAnswered(PendingCommand command) {
+        synchronized (queuedCommands) {
+            if (currentCommand == command) {
+                currentCommand = null;
+            }
+        }
+
+        command.future.complete(command.response.toString());
+
+        writeNextCommand();
+    }
+
+    private void readPackets(DataInputStream in) {
+        try {
+            while (true) {
+                Packet packet = readPacket(in);
+                PendingCommand command = null;
+
+                synchronized (queuedCommands) {
+                    command = currentCommand;
+                }
+
+                if (command == null) {
+                    continue;
+                }
+
+                if (packet.requestId == command.requestId) {
+                    command.response.append(packet.payload);
+
+                    if (command.markerId != -1) {
+                        continue;
+                    }
+
+                    if (packet.payload.length() < SPLIT_RESPONSE_LENGTH) {
+                        commandAnswered(command);
+
+                        continue;
+                    }
+
+                    command.markerId = requestCounter.incrementAndGet();
+
+                    writePacket(command.markerId, TYPE_RESPONSE, "");
+                } else if (packet.requestId == command.markerId) {
+                    commandAnswered(command);
+                }
+            }
+        } catch (IOException ex) {
+            disconnected(ex);
+        }
+    }
+
+    private void disconnected(IOException ex) {
+        List<PendingCommand> commands = new ArrayList<PendingCommand>();
+
+        connected = false;
+
+        synchronized (queuedCommands) {
+            if (currentCommand != null) {
+                commands.add(currentCommand);
+            }
+
+            commands.addAll(queuedCommands);
+            currentCommand = null;
+            queuedCommands.clear();
+        }
+
+        for (PendingCommand command : commands) {
+            command.future.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Connects to the server and logs in
+     * @param password RCON password of the server
+     * @param timeoutMillis maximum time to wait for the server, in
+     * milliseconds
+     * @throws IOException if the server could not be reached or the password
+     * was not accepted
+     */
+    public synchronized void connect(String password, int timeoutMillis) throws IOException {
+        if (connected) {
+            return;
+        }
+
+        close();
+
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(address, timeoutMillis);
+        socket.setSoTimeout(timeoutMillis);
+
+        InputStream socketIn = socket.getInputStream();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socketIn));
+        int loginId = requestCounter.incrementAndGet();
+
+        out = new BufferedOutputStream(socket.getOutputStream());
+
+        writePacket(loginId, TYPE_LOGIN, password);
+
+        while (true) {
+            Packet packet = readPacket(in);
+
+            if (packet.type != TYPE_COMMAND) {
+                continue;
+            }
+
+            if (packet.requestId == -1) {
+                close();
+
+                throw new IOException("The RCON password was not accepted");
+            } else if (packet.requestId == loginId) {
+                break;
+            }
+        }
+
+        socket.setSoTimeout(0);
+        connected = true;
+
+        readThread = ThreadUtil.newThread("RCON Reader", () -> readPackets(in));
+        readThread.start();
+    }
+
+    /**
+     * Gets if the client is connected and logged in
+     * @return if the client is connected and logged in
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Queues a command to be sent once earlier commands have been answered
+     * @param command command to send, without a leading slash
+     * @return future completed with the response of the server
+     */
+    public CompletableFuture<String> sendCommand(String command) {
+        PendingCommand pendingCommand = new PendingCommand(command);
+
+        if (!connected) {
+            pendingCommand.future.completeExceptionally(new IOException("Not connected to RCON"));
+
+            return pendingCommand.future;
+        }
+
+        if (command.getBytes(StandardCharsets.UTF_8).length > MAX_COMMAND_LENGTH) {
+            pendingCommand.future.completeExceptionally(new IOException("Command is too long for RCON"));
+
+            return pendingCommand.future;
+        }
+
+        synchronized (queuedCommands) {
+            if (!connected) {
+                pendingCommand.future.completeExceptionally(new IOException("Not connected to RCON"));
+
+                return pendingCommand.future;
+            }
+
+            queuedCommands.add(pendingCommand);
+        }
+
+        writeNextCommand();
+
+        return pendingCommand.future;
+    }
+
+    @Override
+    public synchronized void close() {
+        connected = false;
+
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+
+            }
+
+            socket = null;
+        }
+    }
+
+}
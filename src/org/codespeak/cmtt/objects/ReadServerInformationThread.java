@@ -1,6 +1,7 @@
 package org.codespeak.cmtt.objects;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
@@ -8,64 +9,49 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import javafx.application.Platform;
-import javafx.scene.control.Label;
-import org.codespeak.cmtt.profiles.ServerProfile;
 import org.json.JSONException;
+import org.codespeak.cmtt.util.ThreadUtil;
 import org.json.JSONObject;
 
 /**
- * A thread to read the latest log file of a Minecraft server after it has
- * terminated, looking for the version of the server
+ * A thread that waits for a Minecraft server to terminate and, if the server
+ * information wasn't found in its live output, reads it from the latest log
+ * file instead
  *
  * @author Vector
  */
-public class ReadServerInformationThread extends Thread {
-    private final String MINECRAFT_VERSION_TEXT = "Starting minecraft server version ";
-    private final String SERVER_DETAILS_TEXT = "This server is running ";
+public class ReadServerInformationThread extends LightweightThread {
     
-    private List<String> quitStrings = new ArrayList<String>(Arrays.asList("Done", "Ready for connections."));
     private final Process process;
-    private final ServerProfile serverProfile;
+    private final ServerInformationParser parser;
     private final Path profilePath;
-    private final Path profileServerPath;
-    private final Label minecraftVersionLabel;
-    private final Label serverDetailsLabel;
     
-    private boolean isQuitString(String line) {
-        for (String quitString : quitStrings) {
-            if (line.contains(quitString)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-    
-    private String readMinecraftVersion(Path minecraftServerPath) {
-        try {
-            JarFile jarfile = new JarFile(minecraftServerPath.toFile());
+    /**
+     * Reads the Minecraft version from the version.json file of a server jar
+     * @param minecraftServerPath path to the server jar
+     * @return Minecraft version of the server jar, or "Unknown" if it could
+     * not be read
+     */
+    public static String readMinecraftVersion(Path minecraftServerPath) {
+        try (JarFile jarfile = new JarFile(minecraftServerPath.toFile())) {
             JarEntry entry = jarfile.getJarEntry("version.json");
 
             if (entry != null) {
-                InputStream stream = jarfile.getInputStream(entry);
-                byte[] bytes = new byte[1024];
-                String contents = "";
-                
-                while (stream.read(bytes, 0, 1024) > 0) {
-                    contents += new String(bytes);
-                }
+                try (InputStream stream = jarfile.getInputStream(entry)) {
+                    ByteArrayOutputStream contents = new ByteArrayOutputStream();
+                    byte[] bytes = new byte[1024];
+                    int read = 0;
 
-                stream.close();
-                
-                JSONObject json = new JSONObject(contents);
-                
-                return json.getString("name");
+                    while ((read = stream.read(bytes, 0, 1024)) > 0) {
+                        contents.write(bytes, 0, read);
+                    }
+
+                    JSONObject json = new JSONObject(contents.toString());
+
+                    return json.getString("name");
+                }
             }
         } catch (JSONException | IOException ex) {
             
@@ -118,49 +104,34 @@ public class ReadServerInformationThread extends Thread {
         return logFilePath;
     }
 
-    public ReadServerInformationThread(Process process, ServerProfile serverProfile, Label minecraftVersionLabel, Label serverDetailsLabel) {
-        this.process = process;
-        this.serverProfile = serverProfile;
-        this.minecraftVersionLabel = minecraftVersionLabel;
-        this.serverDetailsLabel = serverDetailsLabel;
+    public ReadServerInformationThread(Process process, ServerInformationParser parser, Path profilePath) {
+        super("Server Information Reader");
         
-        this.profilePath = serverProfile.getProfilePath();
-        this.profileServerPath = serverProfile.getProfileServerPath();
+        this.process = process;
+        this.parser = parser;
+        this.profilePath = profilePath;
     }
     
     @Override
     public void run() {
         try {
-            process.waitFor();
+            ThreadUtil.waitFor(process);
         } catch (InterruptedException ex) {
             return;
         }
 
-        String minecraftVersion = readMinecraftVersion(profileServerPath);
-        String serverDetails = "Unknown";
+        if (parser.isFinished()) {
+            return;
+        }
+        
         Path logFilePath = getServerLogFile(profilePath);
 
         if (logFilePath != null) {
-            try {
-                BufferedReader reader = new BufferedReader(new FileReader(logFilePath.toFile()));
+            try (BufferedReader reader = new BufferedReader(new FileReader(logFilePath.toFile()))) {
                 String line = null;
 
                 while ((line = reader.readLine()) != null) {
-                    if (line.contains(MINECRAFT_VERSION_TEXT) && minecraftVersion.equals("Unknown")) {
-                        int minecraftVersionIdx = line.indexOf(MINECRAFT_VERSION_TEXT) + MINECRAFT_VERSION_TEXT.length();
-
-                        minecraftVersion = line.substring(minecraftVersionIdx);
-                    } else if (line.contains(SERVER_DETAILS_TEXT)) {
-                        int serverDetailsIdx = line.indexOf(SERVER_DETAILS_TEXT) + SERVER_DETAILS_TEXT.length();
-
-                        serverDetails = line.substring(serverDetailsIdx);
-                    }
-
-                    if (isQuitString(line)) {
-                        break;
-                    }
-
-                    if (!minecraftVersion.equals("Unknown") && !serverDetails.equals("Unknown")) {
+                    if (parser.parseLine(line)) {
                         break;
                     }
                 }
@@ -168,16 +139,6 @@ public class ReadServerInformationThread extends Thread {
 
             }
         }
-
-        final String finalMinecraftVersion = minecraftVersion;
-        final String finalServerDetails = serverDetails;
-        
-        Platform.runLater(() -> {
-            serverProfile.setMinecraftVersion(finalMinecraftVersion);
-            serverProfile.setServerDetails(finalServerDetails);
-            minecraftVersionLabel.setText(finalMinecraftVersion);
-            serverDetailsLabel.setText(finalServerDetails);
-        });
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * A thread that reads the output of a server process line by line as it is
+ * written and stores it in a console buffer
+ *
+ * @author Vector
+ */
+public class ReadServerOutputThread extends LightweightThread {
+
+    private final Process process;
+    private final ConsoleBuffer consoleBuffer;
+
+    public ReadServerOutputThread(Process process, ConsoleBuffer consoleBuffer) {
+        super("Server Output Reader");
+
+        this.process = process;
+        this.consoleBuffer = consoleBuffer;
+    }
+
+    @Override
+    public void run() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line = null;
+
+            while ((line = reader.readLine()) != null) {
+                consoleBuffer.add(line);
+                lineRead(line);
+            }
+        } catch (IOException ex) {
+
+        }
+    }
+
+    /**
+     * Called from this thread for each line of output read from the server
+     * @param line line of output
+     */
+    public void lineRead(String line) {
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.regex.Pattern;
+
+/**
+ * A thread that repeatedly pings a starting server until it answers with its
+ * status. The server counts as ready as soon as it answers with its version,
+ * regardless of what it writes to its log. Servers before 1.13 answer while
+ * their worlds are still loading, but without a version, so such answers
+ * don't count. Servers that don't listen on the port from
+ * server.properties, such as proxies run as custom servers, never answer, so
+ * once the server has written a line saying it is ready, it counts as ready
+ * without a status if the ping still fails after a short grace period
+ *
+ * @author Vector
+ */
+public class ReadinessProbeThread extends LightweightThread {
+
+    private static final long PING_TIMEOUT_MILLIS = 2000;
+    private static final long RETRY_MILLIS = 250;
+    private static final long READY_LINE_GRACE_MILLIS = 3000;
+    private static final Pattern READY_LINE_PATTERN = Pattern.compile("Done \\(\\d+[.,]\\d+s\\)|Ready for connections\\.|Listening on /");
+
+    private final Process process;
+    private final InetSocketAddress address;
+    private volatile long readyLineTime = -1;
+
+    public ReadinessProbeThread(Process process, InetSocketAddress address) {
+        super("Server Readiness Probe");
+
+        this.process = process;
+        this.address = address;
+    }
+
+    @Override
+    public void run() {
+        while (process.isAlive() && !isInterrupted()) {
+            try {
+                ServerStatus status = ServerListPing.ping(address, PING_TIMEOUT_MILLIS);
+
+                if (status.hasVersion()) {
+                    ready(status);
+
+                    return;
+                }
+            } catch (IOException ex) {
+
+            }
+
+            if (readyLineTime != -1 && System.currentTimeMillis() - readyLineTime >= READY_LINE_GRACE_MILLIS) {
+                ready(null);
+
+                return;
+            }
+
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks if a line of server output says that the server is ready
+     * @param line line of server output
+     * @return if the line says that the server is ready
+     */
+    public static boolean isReadyLine(String line) {
+        return READY_LINE_PATTERN.matcher(line).find();
+    }
+
+    /**
+     * Passes a line of server output to this probe so it can fall back on
+     * the server saying it is ready
+     * @param line line of server output
+     */
+    public void lineRead(String line) {
+        if (readyLineTime == -1 && isReadyLine(line)) {
+            readyLineTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Called from this thread once the server has answered with its status,
+     * or has said it is ready without answering
+     * @param status status of the server, or null if it didn't answer
+     */
+    public void ready(ServerStatus status) {
+
+    }
+
+}
@@ -0,0 +1,245 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class that deletes a folder and everything in it. Each folder is listed
+ * with Files.walkFileTree one level deep, its subfolders are deleted in
+ * parallel on a shared fork/join pool, and large folders have their files
+ * split into batches that are deleted in parallel too. Symbolic links are
+ * deleted rather than followed, and files that could not be deleted are
+ * collected instead of stopping the delete
+ *
+ * @author Vector
+ */
+public class RecursiveDeleter {
+
+    private static final int MAX_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final int FILE_BATCH_SIZE = 256;
+    private static final int PROGRESS_INTERVAL = 256;
+    private static ForkJoinPool pool = null;
+
+    private final Path path;
+    private final TaskContext context;
+    private final AtomicLong deletedCount = new AtomicLong();
+    private final ConcurrentLinkedQueue<Path> failedPaths = new ConcurrentLinkedQueue<Path>();
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(MAX_THREADS, (ForkJoinPool forkJoinPool) -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("Recursive Delete " + thread.getPoolIndex());
+                thread.setDaemon(true);
+
+                return thread;
+            }, null, false);
+        }
+
+        return pool;
+    }
+
+    /**
+     * Creates a recursive deleter
+     * @param path file or folder to delete
+     * @param context context to report progress to and check for
+     * cancellation, or null
+     */
+    public RecursiveDeleter(Path path, TaskContext context) {
+        this.path = path;
+        this.context = context;
+    }
+
+    private boolean isCancelled() {
+        return context != null && context.isCancelled();
+    }
+
+    private void deletePath(Path deletePath) {
+        try {
+            Files.delete(deletePath);
+        } catch (NoSuchFileException ex) {
+            return;
+        } catch (IOException ex) {
+            failedPaths.add(deletePath);
+
+            return;
+        }
+
+        long deleted = deletedCount.incrementAndGet();
+
+        if (context != null && deleted % PROGRESS_INTERVAL == 0) {
+            context.updateProgress(deleted, -1);
+            context.updateMessage(deleted + " files deleted");
+        }
+    }
+
+    private DeleteResult getResult() {
+        List<Path> failed = new ArrayList<Path>(failedPaths);
+
+        Collections.sort(failed);
+
+        return new DeleteResult(deletedCount.get(), failed, isCancelled());
+    }
+
+    /**
+     * Deletes the file or folder and everything in it, blocking until done
+     * @return result of the delete
+     */
+    public DeleteResult delete() {
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            getPool().invoke(new FolderAction(path));
+        } else if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            deletePath(path);
+        }
+
+        return getResult();
+    }
+
+    /**
+     * Deletes the file or folder and everything in it one file at a time on
+     * the calling thread, without using the shared pool. Meant for deletes
+     * that should stay in the background, keeping the priority of the
+     * calling thread
+     * @return result of the delete
+     */
+    public DeleteResult deleteSequentially() {
+        try {
+            Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (isCancelled()) {
+                        return FileVisitResult.TERMINATE;
+                    }
+
+                    deletePath(file);
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                    if (!(ex instanceof NoSuchFileException)) {
+                        failedPaths.add(file);
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path folder, IOException ex) {
+                    if (isCancelled()) {
+                        return FileVisitResult.TERMINATE;
+                    }
+
+                    deletePath(folder);
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            failedPaths.add(path);
+        }
+
+        return getResult();
+    }
+
+    private class FolderAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path folder;
+
+        public FolderAction(Path folder) {
+            this.folder = folder;
+        }
+
+        @Override
+        protected void compute() {
+            if (isCancelled()) {
+                return;
+            }
+
+            List<Path> files = new ArrayList<Path>();
+            List<RecursiveAction> actions = new ArrayList<RecursiveAction>();
+
+            try {
+                Files.walkFileTree(folder, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isDirectory()) {
+                            actions.add(new FolderAction(file));
+                        } else {
+                            files.add(file);
+                        }
+
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                        if (!file.equals(folder)) {
+                            files.add(file);
+                        }
+
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException ex) {
+                failedPaths.add(folder);
+
+                return;
+            }
+
+            for (int i = 0; i < files.size(); i += FILE_BATCH_SIZE) {
+                actions.add(new FilesAction(files.subList(i, Math.min(i + FILE_BATCH_SIZE, files.size()))));
+            }
+
+            invokeAll(actions);
+
+            if (!isCancelled()) {
+                deletePath(folder);
+            }
+        }
+
+    }
+
+    private class FilesAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+
+        public FilesAction(List<Path> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected void compute() {
+            for (Path file : files) {
+                if (isCancelled()) {
+                    return;
+                }
+
+                deletePath(file);
+            }
+        }
+
+    }
+
+}
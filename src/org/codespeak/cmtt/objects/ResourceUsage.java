@@ -0,0 +1,187 @@
+package org.codespeak.cmtt.objects;
+
+import org.json.JSONObject;
+
+/**
+ * A class representing the peak resource usage of the server process of a
+ * single launch
+ *
+ * @author Vector
+ */
+public class ResourceUsage {
+
+    private final long time;
+    private final int developmentProfileId;
+    private final int serverProfileId;
+    private final String upperMemory;
+    private final long peakResidentMemory;
+    private final long cpuTime;
+    private final double peakCPUUsage;
+    private final int peakThreads;
+    private final int peakFileDescriptors;
+
+    public ResourceUsage(long time, int developmentProfileId, int serverProfileId, String upperMemory,
+                         long peakResidentMemory, long cpuTime, double peakCPUUsage, int peakThreads,
+                         int peakFileDescriptors) {
+        this.time = time;
+        this.developmentProfileId = developmentProfileId;
+        this.serverProfileId = serverProfileId;
+        this.upperMemory = upperMemory;
+        this.peakResidentMemory = peakResidentMemory;
+        this.cpuTime = cpuTime;
+        this.peakCPUUsage = peakCPUUsage;
+        this.peakThreads = peakThreads;
+        this.peakFileDescriptors = peakFileDescriptors;
+    }
+
+    /**
+     * Gets the time the launch started, in milliseconds since the epoch
+     * @return time the launch started
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the ID of the development profile that was launched
+     * @return ID of the development profile that was launched
+     */
+    public int getDevelopmentProfileId() {
+        return developmentProfileId;
+    }
+
+    /**
+     * Gets the ID of the server profile that was launched
+     * @return ID of the server profile that was launched
+     */
+    public int getServerProfileId() {
+        return serverProfileId;
+    }
+
+    /**
+     * Gets the maximum heap size the server was launched with
+     * @return maximum heap size the server was launched with, or an empty
+     * string if none was set
+     */
+    public String getUpperMemory() {
+        return upperMemory;
+    }
+
+    /**
+     * Gets the highest resident memory of the server process, in bytes
+     * @return highest resident memory of the server process
+     */
+    public long getPeakResidentMemory() {
+        return peakResidentMemory;
+    }
+
+    /**
+     * Gets the CPU time used by the server process, in milliseconds
+     * @return CPU time used by the server process
+     */
+    public long getCPUTime() {
+        return cpuTime;
+    }
+
+    /**
+     * Gets the highest CPU usage of the server process between two samples,
+     * where 1.0 is one core fully used
+     * @return highest CPU usage of the server process
+     */
+    public double getPeakCPUUsage() {
+        return peakCPUUsage;
+    }
+
+    /**
+     * Gets the highest number of threads of the server process
+     * @return highest number of threads of the server process
+     */
+    public int getPeakThreads() {
+        return peakThreads;
+    }
+
+    /**
+     * Gets the highest number of open file descriptors of the server process
+     * @return highest number of open file descriptors of the server process
+     */
+    public int getPeakFileDescriptors() {
+        return peakFileDescriptors;
+    }
+
+    /**
+     * Converts this object to JSON
+     * @return JSON representation of this object
+     */
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+
+        json.put("time", time);
+        json.put("development_profile", developmentProfileId);
+        json.put("server_profile", serverProfileId);
+        json.put("upper_memory", upperMemory);
+        json.put("peak_rss", peakResidentMemory);
+        json.put("cpu_time", cpuTime);
+        json.put("peak_cpu", peakCPUUsage);
+        json.put("peak_threads", peakThreads);
+        json.put("peak_fds", peakFileDescriptors);
+
+        return json;
+    }
+
+    /**
+     * Creates a ResourceUsage object from JSON
+     * @param json JSON representation of a ResourceUsage object
+     * @return ResourceUsage object represented by JSON
+     */
+    public static ResourceUsage fromJSON(JSONObject json) {
+        long time = 0;
+        int developmentProfileId = 0;
+        int serverProfileId = 0;
+        String upperMemory = "";
+        long peakResidentMemory = 0;
+        long cpuTime = 0;
+        double peakCPUUsage = 0;
+        int peakThreads = 0;
+        int peakFileDescriptors = 0;
+
+        if (json.has("time")) {
+            time = json.getLong("time");
+        }
+
+        if (json.has("development_profile")) {
+            developmentProfileId = json.getInt("development_profile");
+        }
+
+        if (json.has("server_profile")) {
+            serverProfileId = json.getInt("server_profile");
+        }
+
+        if (json.has("upper_memory")) {
+            upperMemory = json.getString("upper_memory");
+        }
+
+        if (json.has("peak_rss")) {
+            peakResidentMemory = json.getLong("peak_rss");
+        }
+
+        if (json.has("cpu_time")) {
+            cpuTime = json.getLong("cpu_time");
+        }
+
+        if (json.has("peak_cpu")) {
+            peakCPUUsage = json.getDouble("peak_cpu");
+        }
+
+        if (json.has("peak_threads")) {
+            peakThreads = json.getInt("peak_threads");
+        }
+
+        if (json.has("peak_fds")) {
+            peakFileDescriptors = json.getInt("peak_fds");
+        }
+
+        return new ResourceUsage(time, developmentProfileId, serverProfileId, upperMemory, peakResidentMemory,
+                                 cpuTime, peakCPUUsage, peakThreads, peakFileDescriptors);
+    }
+
+}
@@ -1,6 +1,6 @@
 package org.codespeak.cmtt.objects;
 
-import javafx.application.Platform;
+import org.codespeak.cmtt.util.ThreadUtil;
 
 /**
  * A thread that has a single finished method that runs after a process
@@ -8,29 +8,30 @@ import javafx.application.Platform;
  *
  * @author Vector
  */
-public class RunAfterProcessThread extends Thread {
+public class RunAfterProcessThread extends LightweightThread {
 
     private Process process;
     
     public RunAfterProcessThread(Process process) {
+        super("Server Process Monitor");
+        
         this.process = process;
+        
     }
 
     @Override
     public void run() {
         try {
-            process.waitFor();
+            ThreadUtil.waitFor(process);
         } catch (InterruptedException ex) {
             return;
         }
         
-        Platform.runLater(() -> {
-            finished();
-        });
+        finished();
     }
     
     /**
-     * Called after the process has finished
+     * Called from this thread after the process has finished
      */
     public void finished() {
 
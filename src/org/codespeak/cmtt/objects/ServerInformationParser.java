@@ -0,0 +1,101 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A class that extracts the Minecraft version and server details from the
+ * output of a Minecraft server, one line at a time. Parsing stops once both
+ * have been found or the server reports that it has finished starting
+ *
+ * @author Vector
+ */
+public class ServerInformationParser {
+
+    private static final String UNKNOWN = "Unknown";
+    private static final String MINECRAFT_VERSION_TEXT = "Starting minecraft server version ";
+    private static final String SERVER_DETAILS_TEXT = "This server is running ";
+
+    private final List<String> quitStrings = new ArrayList<String>(Arrays.asList("Done", "Ready for connections."));
+    private String minecraftVersion;
+    private String serverDetails = UNKNOWN;
+    private boolean finished = false;
+
+    public ServerInformationParser() {
+        this(UNKNOWN);
+    }
+
+    /**
+     * Creates a server information parser
+     * @param minecraftVersion Minecraft version already known for the server,
+     * which takes precedence over the version found in the output
+     */
+    public ServerInformationParser(String minecraftVersion) {
+        this.minecraftVersion = minecraftVersion;
+    }
+
+    private boolean isQuitString(String line) {
+        for (String quitString : quitStrings) {
+            if (line.contains(quitString)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses a line of server output
+     * @param line line of server output
+     * @return if parsing has finished
+     */
+    public synchronized boolean parseLine(String line) {
+        if (finished) {
+            return true;
+        }
+
+        boolean found = false;
+
+        if (line.contains(MINECRAFT_VERSION_TEXT) && minecraftVersion.equals(UNKNOWN)) {
+            int minecraftVersionIdx = line.indexOf(MINECRAFT_VERSION_TEXT) + MINECRAFT_VERSION_TEXT.length();
+
+            minecraftVersion = line.substring(minecraftVersionIdx);
+            found = true;
+        } else if (line.contains(SERVER_DETAILS_TEXT)) {
+            int serverDetailsIdx = line.indexOf(SERVER_DETAILS_TEXT) + SERVER_DETAILS_TEXT.length();
+
+            serverDetails = line.substring(serverDetailsIdx);
+            found = true;
+        }
+
+        if (isQuitString(line) || (!minecraftVersion.equals(UNKNOWN) && !serverDetails.equals(UNKNOWN))) {
+            finished = true;
+        }
+
+        if (found || finished) {
+            informationFound(minecraftVersion, serverDetails);
+        }
+
+        return finished;
+    }
+
+    /**
+     * Gets if parsing has finished
+     * @return if parsing has finished
+     */
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Called when new information has been found, and once more when parsing
+     * finishes
+     * @param minecraftVersion Minecraft version of the server
+     * @param serverDetails details of the server
+     */
+    public void informationFound(String minecraftVersion, String serverDetails) {
+
+    }
+
+}
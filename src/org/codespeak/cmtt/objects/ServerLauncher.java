@@ -0,0 +1,1030 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.Settings;
+import org.codespeak.cmtt.Settings.SettingFields;
+import org.codespeak.cmtt.objects.handlers.JarStoreHandler;
+import org.codespeak.cmtt.objects.handlers.LaunchHistoryHandler;
+import org.codespeak.cmtt.objects.handlers.PortHandler;
+import org.codespeak.cmtt.objects.handlers.ResourceHistoryHandler;
+import org.codespeak.cmtt.profiles.DevelopmentProfile;
+import org.codespeak.cmtt.profiles.JavaProfile;
+import org.codespeak.cmtt.profiles.ServerProfile;
+import org.codespeak.cmtt.util.ServerPropertiesUtil;
+import org.codespeak.cmtt.util.StringUtil;
+import org.codespeak.cmtt.util.ThreadUtil;
+
+/**
+ * A class that launches a development profile on a server profile without
+ * depending on any user interface. Hooks are called from background threads,
+ * so callers that update a user interface must move back to its thread
+ *
+ * @author Vector
+ */
+public class ServerLauncher {
+
+    private static final int RCON_PASSWORD_BYTES = 18;
+    private static final int RCON_TIMEOUT_MILLIS = 5000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final String CONFIG_FOLDER = "config";
+
+    private final DevelopmentProfile developmentProfile;
+    private final ServerProfile serverProfile;
+    private final JavaProfile javaProfile;
+    private final ConsoleBuffer consoleBuffer;
+    private final Path isolatedPath;
+    private final LaunchTimer launchTimer;
+    private final CountDownLatch startedLatch = new CountDownLatch(1);
+    private final CountDownLatch stoppedLatch = new CountDownLatch(1);
+    private String minecraftVersion = "";
+    private Thread prepareThread = null;
+    private Process process = null;
+    private PrintWriter commandWriter = null;
+    private RunAfterProcessThread afterThread = null;
+    private ReadServerOutputThread outputThread = null;
+    private ReadServerInformationThread readThread = null;
+    private volatile ReadinessProbeThread probeThread = null;
+    private volatile TickMonitorThread tickMonitor = null;
+    private ProcessMonitor processMonitor = null;
+    private volatile long stopRequestTime = -1;
+    private volatile long shutdownTime = -1;
+    private volatile boolean forciblyStopped = false;
+    private volatile boolean watchdogTriggered = false;
+    private volatile boolean destroyed = false;
+    private long launchTime = -1;
+    private long firstOutputLine = 0;
+    private volatile ServerStatus serverStatus = null;
+    private volatile LaunchRecord launchRecord = null;
+    private int port = -1;
+    private int rconPort = -1;
+    private String rconPassword = null;
+    private RconClient rconClient = null;
+
+    public ServerLauncher(DevelopmentProfile developmentProfile, ServerProfile serverProfile, JavaProfile javaProfile,
+                          ConsoleBuffer consoleBuffer) {
+        this(developmentProfile, serverProfile, javaProfile, consoleBuffer, null);
+    }
+
+    /**
+     * Creates a launcher that runs the server in its own folder instead of
+     * the server profile folder. The server jarfile and plugins are linked
+     * from the jarfile store, and worlds are kept inside the folder
+     * @param developmentProfile development profile to launch
+     * @param serverProfile server profile to launch on
+     * @param javaProfile Java profile to launch with, or null for the system
+     * Java installation
+     * @param consoleBuffer buffer to store server output in
+     * @param isolatedPath folder to run the server in, or null to run in the
+     * server profile folder
+     */
+    public ServerLauncher(DevelopmentProfile developmentProfile, ServerProfile serverProfile, JavaProfile javaProfile,
+                          ConsoleBuffer consoleBuffer, Path isolatedPath) {
+        this.developmentProfile = developmentProfile;
+        this.serverProfile = serverProfile;
+        this.javaProfile = javaProfile;
+        this.consoleBuffer = consoleBuffer;
+        this.isolatedPath = (isolatedPath != null ? isolatedPath.toAbsolutePath() : null);
+        this.launchTimer = new LaunchTimer(developmentProfile, serverProfile, javaProfile);
+    }
+
+    private String getPluginsFolderArgument() {
+        ServerTypes serverType = serverProfile.getServerType();
+
+        return (serverType == ServerTypes.CUSTOM ? serverProfile.getCustomPluginsFolderArgument() : serverType.getPluginsFolderArgument());
+    }
+
+    /**
+     * Gets if this launcher runs the server in its own folder
+     * @return if this launcher runs the server in its own folder
+     */
+    public boolean isIsolated() {
+        return isolatedPath != null;
+    }
+
+    /**
+     * Gets the folder the server runs in
+     * @return folder the server runs in
+     */
+    public Path getWorkingPath() {
+        return (isolatedPath != null ? isolatedPath : serverProfile.getProfilePath());
+    }
+
+    /**
+     * Gets the folder the server keeps its worlds in when the development
+     * profile doesn't use the server worlds
+     * @return folder the server keeps its worlds in
+     */
+    public Path getWorldsPath() {
+        return (isolatedPath != null ? isolatedPath.resolve("worlds") : developmentProfile.getWorldLocation(serverProfile));
+    }
+
+    /**
+     * Gets the plugins folder used by the server
+     * @return plugins folder used by the server
+     */
+    public Path getPluginsPath() {
+        return (isolatedPath != null ? isolatedPath.resolve("plugins") : developmentProfile.getPluginsLocation().toAbsolutePath());
+    }
+
+    /**
+     * Gets the development profile being launched
+     * @return development profile being launched
+     */
+    public DevelopmentProfile getDevelopmentProfile() {
+        return developmentProfile;
+    }
+
+    /**
+     * Gets the server profile the development profile is launched on
+     * @return server profile the development profile is launched on
+     */
+    public ServerProfile getServerProfile() {
+        return serverProfile;
+    }
+
+    /**
+     * Gets the Java profile the server is launched with
+     * @return Java profile the server is launched with, or null for the
+     * system Java installation
+     */
+    public JavaProfile getJavaProfile() {
+        return javaProfile;
+    }
+
+    /**
+     * Checks if the server can be started
+     * @return message describing why the server cannot be started, or null
+     * if it can be started
+     */
+    public String getStartProblem() {
+        if (!serverProfile.hasNecessaryFiles()) {
+            Path serverPath = serverProfile.getServerPath();
+
+            if (!serverPath.toFile().exists()) {
+                return "The server file cannot be found. Unable to start Minecraft server.";
+            }
+        }
+
+        if (!StringUtil.isNullOrEmpty(getPluginsFolderArgument())) {
+            List<Plugin> plugins = developmentProfile.getPlugins();
+            Path pluginsFolderLocation = developmentProfile.getPluginsLocation();
+
+            for (Plugin plugin : plugins) {
+                if (!plugin.hasPluginFile(pluginsFolderLocation)) {
+                    Path pluginPath = plugin.getPath();
+
+                    if (!pluginPath.toFile().exists()) {
+                        return "One or more plugins cannot be found. Unable to start Minecraft server.";
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets if the server is started through a shell in its own console window
+     * instead of running Java directly
+     * @return if the server is started through a shell
+     */
+    public boolean isLaunchingThroughShell() {
+        Settings settings = Configuration.getSettings();
+        boolean launchThroughShell = settings.getSetting(SettingFields.LAUNCH_THROUGH_SHELL);
+
+        return launchThroughShell && isolatedPath == null;
+    }
+
+    /**
+     * Gets the arguments used to start the server. Java is run directly
+     * unless the server is launched through a shell
+     * @param debugMode whether the server is started in debug mode
+     * @return arguments used to start the server
+     */
+    public List<String> getStartupArguments(boolean debugMode) {
+        List<String> javaCommands = getJavaArguments();
+
+        if (!isLaunchingThroughShell()) {
+            return javaCommands;
+        }
+
+        List<String> commands = new ArrayList<String>();
+        String OS = System.getProperty("os.name").toLowerCase();
+        boolean isWindows = OS.indexOf("win") > -1;
+        String windowTitle = "Deveopment profile: " + developmentProfile.getName() + " Selected server: " + serverProfile.getName();
+
+        if (isWindows) {
+            commands.add("cmd");
+            commands.add("/c");
+            commands.add("start");
+            commands.add(windowTitle);
+            commands.add("/wait");
+            commands.add("cmd");
+            commands.add("/c");
+            commands.addAll(javaCommands);
+
+            if (debugMode) {
+                commands.add("^&");
+                commands.add("pause");
+            }
+        } else {
+            StringBuilder commandLine = new StringBuilder("exec");
+
+            for (String command : javaCommands) {
+                commandLine.append(' ').append(StringUtil.quoteShellArgument(command));
+            }
+
+            commands.add("/bin/bash");
+            commands.add("-c");
+            commands.add(commandLine.toString());
+        }
+
+        return commands;
+    }
+
+    private List<String> getJavaArguments() {
+        List<String> commands = new ArrayList<String>();
+
+        String lowerMemory = developmentProfile.getLowerMemory();
+        String upperMemory = developmentProfile.getUpperMemory();
+        String jvmFlagsString = developmentProfile.getJVMFlagsString();
+
+        commands.add(javaProfile != null ? javaProfile.getJavaExecutablePath().toString() : "java");
+
+        if (!StringUtil.isNullOrEmpty(jvmFlagsString)) {
+            List<String> flagList = StringUtil.splitArguments(jvmFlagsString);
+
+            commands.addAll(flagList);
+        }
+
+        if (!StringUtil.isNullOrEmpty(lowerMemory)) {
+            commands.add("-Xms" + lowerMemory);
+        }
+
+        if (!StringUtil.isNullOrEmpty(upperMemory)) {
+            commands.add("-Xmx" + upperMemory);
+        }
+
+        ServerTypes serverType = serverProfile.getServerType();
+
+        if (serverType.is(ServerTypes.BUKKIT, ServerTypes.SPIGOT)) {
+            commands.add("-DIReallyKnowWhatIAmDoingISwear");
+        }
+
+        commands.add("-jar");
+        commands.add("server.jar");
+
+        String minecraftServerArguments = developmentProfile.getMinecraftServerArguments();
+
+        if (!StringUtil.isNullOrEmpty(minecraftServerArguments)) {
+            List<String> args = StringUtil.splitArguments(minecraftServerArguments);
+
+            for (String arg : args) {
+                commands.add(arg);
+            }
+        }
+
+        String customWorldNameArgument = (serverType == ServerTypes.CUSTOM ? serverProfile.getCustomWorldNameArgument() : serverType.getWorldNameArgument());
+        String customServerWorldName = developmentProfile.getCustomServerWorldName();
+
+        if (!StringUtil.isNullOrEmpty(customWorldNameArgument) && !StringUtil.isNullOrEmpty((customServerWorldName))) {
+            commands.add(customWorldNameArgument);
+            commands.add(customServerWorldName);
+        }
+
+        String worldsFolderArgument = (serverType == ServerTypes.CUSTOM ? serverProfile.getCustomWorldsFolderArgument() : serverType.getWorldsFolderArgument());
+
+        if (!StringUtil.isNullOrEmpty(worldsFolderArgument) && !developmentProfile.isUsingServerWorlds()) {
+            commands.add(worldsFolderArgument);
+
+            Path worldsLocation = getWorldsPath();
+            File fileWorldsLocation = worldsLocation.toFile();
+
+            if (!fileWorldsLocation.exists()) {
+                fileWorldsLocation.mkdirs();
+            }
+
+            commands.add(worldsLocation.toString());
+        }
+
+        String pluginsFolderArgument = getPluginsFolderArgument();
+
+        if (!StringUtil.isNullOrEmpty(pluginsFolderArgument) && !developmentProfile.getPlugins().isEmpty()) {
+            Path pluginsLocation = getPluginsPath();
+
+            commands.add(pluginsFolderArgument);
+            commands.add(pluginsLocation.toString());
+        }
+
+        if (serverType == ServerTypes.GLOWSTONE && port > 0) {
+            commands.add("--port");
+            commands.add(Integer.toString(port));
+        }
+
+        if (!developmentProfile.isUsingServerGUI()) {
+            commands.add("nogui");
+        }
+
+        return commands;
+    }
+
+    private void copyServerConfig() throws IOException {
+        Path profilePath = serverProfile.getProfilePath();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(profilePath)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+
+                if (Files.isRegularFile(path) && !fileName.endsWith(".jar") && !fileName.endsWith(".tmp")) {
+                    Files.copy(path, isolatedPath.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+
+        Path configPath = profilePath.resolve(CONFIG_FOLDER);
+
+        if (!Files.isDirectory(configPath)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(configPath)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path targetPath = isolatedPath.resolve(profilePath.relativize(path).toString());
+
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(targetPath);
+                } else {
+                    Files.copy(path, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private void prepareIsolated() throws IOException {
+        Path pluginsPath = getPluginsPath();
+
+        Files.createDirectories(pluginsPath);
+
+        JarStoreHandler.place(serverProfile.getProfileServerPath(), isolatedPath.resolve("server.jar"));
+        copyServerConfig();
+
+        if (!StringUtil.isNullOrEmpty(getPluginsFolderArgument())) {
+            Path sourcePluginsPath = developmentProfile.getPluginsLocation();
+
+            for (Plugin plugin : developmentProfile.getPlugins()) {
+                String fileName = plugin.getFileName();
+
+                JarStoreHandler.place(sourcePluginsPath.resolve(fileName), pluginsPath.resolve(fileName));
+            }
+        }
+    }
+
+    /**
+     * Updates the server and synchronizes plugins before launching. Blocks
+     * until both are done. An isolated launch expects the server and plugins
+     * to already be up-to-date in their profile folders, and links them into
+     * its own folder instead, along with copies of the server configuration
+     * @throws IOException if the files of an isolated launch could not be
+     * linked
+     * @throws InterruptedException if interrupted while synchronizing plugins
+     */
+    public void prepare() throws IOException, InterruptedException {
+        prepareThread = Thread.currentThread();
+
+        if (isolatedPath != null) {
+            prepareIsolated();
+
+            launchTimer.completePhase(LaunchPhase.SERVER_UPDATE);
+            launchTimer.completePhase(LaunchPhase.PLUGIN_SYNC);
+            launchTimer.setPlugins(developmentProfile.getPlugins());
+
+            minecraftVersion = ReadServerInformationThread.readMinecraftVersion(serverProfile.getProfileServerPath());
+            prepareThread = null;
+
+            return;
+        }
+
+        if (!serverProfile.hasNecessaryFiles() || (developmentProfile.isUpdatingOutdatedServerAutomatically() && serverProfile.canUpdate())) {
+            serverProfile.update();
+        }
+
+        launchTimer.completePhase(LaunchPhase.SERVER_UPDATE);
+
+        if (!StringUtil.isNullOrEmpty(getPluginsFolderArgument())) {
+            PluginSynchronizer synchronizer = new PluginSynchronizer(developmentProfile.getPlugins(), developmentProfile.getPluginsLocation().toAbsolutePath(),
+                                                                     developmentProfile.isUpdatingOutdatedPluginsAutomatically()) {
+                @Override
+                public void progress(int completed, int total) {
+                    pluginProgress(completed, total);
+                }
+            };
+
+            synchronizer.synchronize();
+        }
+
+        launchTimer.completePhase(LaunchPhase.PLUGIN_SYNC);
+        launchTimer.setPlugins(developmentProfile.getPlugins());
+
+        minecraftVersion = ReadServerInformationThread.readMinecraftVersion(serverProfile.getProfileServerPath());
+        prepareThread = null;
+    }
+
+    /**
+     * Starts the server process along with the threads that read its output
+     * and wait for it to finish
+     * @param debugMode whether the server is started in debug mode
+     * @throws IOException if the server process could not be started
+     */
+    public void launch(boolean debugMode) throws IOException {
+        launchTime = System.currentTimeMillis();
+        firstOutputLine = consoleBuffer.getLineCount();
+
+        port = PortHandler.allocate();
+
+        if (port == -1) {
+            throw new IOException("There are no free ports left in the server port range.");
+        }
+
+        if (serverProfile.getServerType() != ServerTypes.GLOWSTONE) {
+            rconPort = PortHandler.allocate();
+        }
+
+        try {
+            Map<String, String> properties = new HashMap<String, String>();
+            properties.put("server-port", Integer.toString(port));
+
+            if (rconPort != -1) {
+                rconPassword = generateRconPassword();
+
+                properties.put("enable-rcon", "true");
+                properties.put("rcon.port", Integer.toString(rconPort));
+                properties.put("rcon.password", rconPassword);
+                properties.put("broadcast-rcon-to-ops", "false");
+            } else {
+                properties.put("enable-rcon", "false");
+            }
+
+            ServerPropertiesUtil.setProperties(getWorkingPath().resolve(ServerPropertiesUtil.FILE_NAME), properties);
+
+            List<String> commands = getStartupArguments(debugMode);
+            ProcessBuilder pb = new ProcessBuilder(commands);
+            pb.directory(getWorkingPath().toFile());
+            pb.redirectErrorStream(true);
+
+            process = pb.start();
+        } catch (IOException ex) {
+            releasePorts();
+
+            throw ex;
+        }
+
+        launchTimer.completePhase(LaunchPhase.PROCESS_SPAWN);
+
+        processMonitor = new ProcessMonitor(process, developmentProfile.getId(), serverProfile.getId(), developmentProfile.getUpperMemory());
+        processMonitor.start();
+
+        commandWriter = new PrintWriter(new OutputStreamWriter(process.getOutputStream()), true);
+
+        ServerInformationParser parser = new ServerInformationParser(minecraftVersion) {
+            @Override
+            public void informationFound(String minecraftVersion, String serverDetails) {
+                ServerLauncher.this.informationFound(minecraftVersion, serverDetails);
+            }
+        };
+
+        probeThread = new ReadinessProbeThread(process, new InetSocketAddress(InetAddress.getLoopbackAddress(), port)) {
+            @Override
+            public void ready(ServerStatus status) {
+                serverStatus = status;
+
+                startTickMonitor();
+
+                LaunchRecord record = launchTimer.serverReady();
+
+                if (record != null) {
+                    recordLaunch(record);
+                }
+            }
+        };
+
+        outputThread = new ReadServerOutputThread(process, consoleBuffer) {
+            @Override
+            public void lineRead(String line) {
+                parser.parseLine(line);
+
+                launchTimer.lineRead(line);
+
+                if (!watchdogTriggered && CrashWatchdog.isWatchdogLine(line)) {
+                    watchdogTriggered = true;
+                }
+
+                TickMonitorThread monitor = tickMonitor;
+
+                if (monitor != null) {
+                    monitor.lineRead(line);
+                }
+
+                probeThread.lineRead(line);
+
+                ServerLauncher.this.lineRead(line);
+            }
+        };
+
+        outputThread.start();
+
+        probeThread.start();
+
+        afterThread = new RunAfterProcessThread(process) {
+            @Override
+            public void finished() {
+                stopTickMonitor();
+                closeRcon();
+                releasePorts();
+
+                processMonitor.stop();
+                recordShutdown();
+
+                ResourceUsage usage = processMonitor.getUsage();
+
+                if (usage != null && isolatedPath == null) {
+                    ResourceHistoryHandler.addUsage(usage);
+                }
+
+                commandWriter = null;
+                startedLatch.countDown();
+
+                try {
+                    ServerLauncher.this.finished(process.exitValue());
+                } finally {
+                    stoppedLatch.countDown();
+                }
+            }
+        };
+
+        afterThread.start();
+
+        readThread = new ReadServerInformationThread(process, parser, getWorkingPath());
+        readThread.start();
+    }
+
+    private void startTickMonitor() {
+        TickMonitorThread monitor = new TickMonitorThread(process, this) {
+            @Override
+            public void sampled(double tps, double mspt) {
+                ticksSampled(tps, mspt);
+            }
+        };
+
+        tickMonitor = monitor;
+        monitor.start();
+    }
+
+    private void stopTickMonitor() {
+        TickMonitorThread monitor = tickMonitor;
+
+        if (monitor != null && monitor.isAlive()) {
+            monitor.interrupt();
+        }
+    }
+
+    private void recordShutdown() {
+        long requestTime = stopRequestTime;
+
+        if (requestTime == -1) {
+            return;
+        }
+
+        shutdownTime = (System.nanoTime() - requestTime) / 1000000;
+
+        LaunchRecord record = launchRecord;
+
+        if (record != null && isolatedPath == null) {
+            record.setShutdown(shutdownTime, forciblyStopped);
+
+            LaunchHistoryHandler.addShutdown(record);
+        }
+    }
+
+    private static String generateRconPassword() {
+        byte[] bytes = new byte[RCON_PASSWORD_BYTES];
+
+        RANDOM.nextBytes(bytes);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private void releasePorts() {
+        PortHandler.release(port);
+
+        if (rconPort != -1) {
+            PortHandler.release(rconPort);
+        }
+    }
+
+    private synchronized RconClient getRconClient() throws IOException {
+        if (rconClient == null) {
+            rconClient = new RconClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), rconPort));
+        }
+
+        rconClient.connect(rconPassword, RCON_TIMEOUT_MILLIS);
+
+        return rconClient;
+    }
+
+    private synchronized void closeRcon() {
+        if (rconClient != null) {
+            rconClient.close();
+
+            rconClient = null;
+        }
+    }
+
+    private void recordLaunch(LaunchRecord record) {
+        if (isolatedPath != null) {
+            launchRecord = record;
+            startedLatch.countDown();
+
+            started(record, null);
+
+            return;
+        }
+
+        Settings settings = Configuration.getSettings();
+        double threshold = settings.getSetting(SettingFields.REGRESSION_THRESHOLD);
+        List<LaunchRecord> history = LaunchHistoryHandler.getRecords(record.getDevelopmentProfileId());
+        LaunchRegression regression = LaunchRegressionDetector.check(record, history, threshold);
+
+        LaunchHistoryHandler.addRecord(record);
+
+        launchRecord = record;
+        startedLatch.countDown();
+
+        started(record, regression);
+    }
+
+    /**
+     * Waits until the server has finished starting or has stopped
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return if the server finished starting
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean waitUntilStarted(long timeout, TimeUnit unit) throws InterruptedException {
+        startedLatch.await(timeout, unit);
+
+        return launchRecord != null;
+    }
+
+    /**
+     * Waits until the server process has stopped and its shutdown has been
+     * recorded
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return if the server process has stopped
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean waitUntilStopped(long timeout, TimeUnit unit) throws InterruptedException {
+        if (process == null || stoppedLatch.await(timeout, unit)) {
+            return true;
+        }
+
+        return !process.isAlive() && (afterThread == null || !afterThread.isAlive());
+    }
+
+    /**
+     * Gets the status the server answered with once it was ready
+     * @return status of the server, or null if the server hasn't finished
+     * starting or was only known to be ready from its output
+     */
+    public ServerStatus getServerStatus() {
+        return serverStatus;
+    }
+
+    /**
+     * Gets the monitor sampling the tick health of the server
+     * @return monitor sampling the tick health of the server, or null if the
+     * server hasn't finished starting
+     */
+    public TickMonitorThread getTickMonitor() {
+        return tickMonitor;
+    }
+
+    /**
+     * Gets the peak resource usage of the server process sampled so far
+     * @return peak resource usage of the server process, or null if it
+     * hasn't been sampled
+     */
+    public ResourceUsage getResourceUsage() {
+        return (processMonitor != null ? processMonitor.getUsage() : null);
+    }
+
+    /**
+     * Gets the port the server was told to listen on
+     * @return port the server was told to listen on, or -1 if the server
+     * hasn't been launched
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Gets if the server process is running
+     * @return if the server process is running
+     */
+    public boolean isRunning() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * Gets the record of this launch
+     * @return record of this launch, or null if the server hasn't finished
+     * starting
+     */
+    public LaunchRecord getLaunchRecord() {
+        return launchRecord;
+    }
+
+    /**
+     * Sends a command to the console of the running server
+     * @param command command to send
+     * @return if the command was sent
+     */
+    public boolean sendCommand(String command) {
+        PrintWriter writer = commandWriter;
+
+        if (writer == null) {
+            return false;
+        }
+
+        writer.println(command);
+
+        return !writer.checkError();
+    }
+
+    /**
+     * Gets if commands can be sent to the server over RCON
+     * @return if commands can be sent to the server over RCON
+     */
+    public boolean hasRcon() {
+        return rconPort != -1 && isRunning();
+    }
+
+    /**
+     * Runs a command on the server over RCON. The connection is opened on the
+     * first command and kept open. Commands are sent one at a time, each
+     * after the previous one has been answered
+     * @param command command to run, without a leading slash
+     * @return future completed with the response of the server
+     */
+    public CompletableFuture<String> executeCommand(String command) {
+        if (!hasRcon()) {
+            CompletableFuture<String> future = new CompletableFuture<String>();
+            future.completeExceptionally(new IOException("RCON is not available for this server"));
+
+            return future;
+        }
+
+        RconClient client = rconClient;
+
+        if (client != null && client.isConnected()) {
+            return client.sendCommand(command);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return getRconClient();
+            } catch (IOException ex) {
+                throw new CompletionException(ex);
+            }
+        }).thenCompose((RconClient connectedClient) -> connectedClient.sendCommand(command));
+    }
+
+    /**
+     * Asks the server to stop, saving its worlds, and forcibly stops it if it
+     * hasn't stopped within the timeout. The stop command is sent to the
+     * console of the server, or over RCON if the console can't be written to.
+     * Returns right away
+     * @param timeout maximum time the server may take to stop
+     * @param unit unit of the timeout
+     * @return if the server was running and has been asked to stop
+     */
+    public boolean stop(long timeout, TimeUnit unit) {
+        Process stopProcess = process;
+
+        if (stopProcess == null || !stopProcess.isAlive()) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (stopRequestTime != -1) {
+                return true;
+            }
+
+            stopRequestTime = System.nanoTime();
+        }
+
+        if (!sendCommand("stop")) {
+            executeCommand("stop");
+        }
+
+        Thread timeoutThread = ThreadUtil.newThread("Server Stop Timeout", () -> {
+            try {
+                if (!ThreadUtil.waitFor(stopProcess, timeout, unit)) {
+                    forciblyStopped = true;
+                    stopProcess.destroyForcibly();
+                }
+            } catch (InterruptedException ex) {
+
+            }
+        });
+
+        timeoutThread.start();
+
+        return true;
+    }
+
+    /**
+     * Gets if the server has been asked to stop
+     * @return if the server has been asked to stop
+     */
+    public boolean isStopping() {
+        return stopRequestTime != -1;
+    }
+
+    /**
+     * Gets how long the server took to stop after it was asked to
+     * @return time taken to stop in milliseconds, or -1 if the server wasn't
+     * asked to stop or hasn't stopped yet
+     */
+    public long getShutdownTime() {
+        return shutdownTime;
+    }
+
+    /**
+     * Gets if the server had to be forcibly stopped because it didn't stop
+     * in time
+     * @return if the server had to be forcibly stopped
+     */
+    public boolean isForciblyStopped() {
+        return forciblyStopped;
+    }
+
+    /**
+     * Gets the time the server process was launched, in milliseconds since
+     * the epoch
+     * @return time the server process was launched, or -1 if it hasn't been
+     * launched
+     */
+    public long getLaunchTime() {
+        return launchTime;
+    }
+
+    /**
+     * Gets the last lines of output of this launch
+     * @param maxLines maximum number of lines to get
+     * @return last lines of output of this launch, oldest first
+     */
+    public List<String> getOutputTail(int maxLines) {
+        List<String> lines = new ArrayList<String>();
+
+        consoleBuffer.copyLinesSince(Math.max(firstOutputLine, consoleBuffer.getLineCount() - maxLines), lines);
+
+        return lines;
+    }
+
+    /**
+     * Gets if the watchdog of the server reported that the server stopped
+     * ticking
+     * @return if the watchdog of the server was triggered
+     */
+    public boolean isWatchdogTriggered() {
+        return watchdogTriggered;
+    }
+
+    /**
+     * Checks if the server process stopped abnormally. A server crashed if
+     * its watchdog was triggered, or if it exited with an error without
+     * being asked to stop or being forcibly stopped
+     * @param exitCode exit code of the server process
+     * @return if the server process stopped abnormally
+     */
+    public boolean isCrashed(int exitCode) {
+        return watchdogTriggered || (exitCode != 0 && stopRequestTime == -1 && !destroyed);
+    }
+
+    /**
+     * Forcibly stops the server process
+     */
+    public void destroy() {
+        destroyed = true;
+
+        if (process != null) {
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Stops preparing the launch and stops waiting on the server process.
+     * The server process itself keeps running
+     */
+    public void detach() {
+        Thread thread = prepareThread;
+
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+        }
+
+        if (afterThread != null && afterThread.isAlive()) {
+            afterThread.interrupt();
+        }
+
+        if (readThread != null && readThread.isAlive()) {
+            readThread.interrupt();
+        }
+
+        if (probeThread != null && probeThread.isAlive()) {
+            probeThread.interrupt();
+        }
+
+        stopTickMonitor();
+    }
+
+    /**
+     * Called from the preparing thread as plugins are synchronized
+     * @param completed number of plugins that have been synchronized
+     * @param total total number of plugins
+     */
+    public void pluginProgress(int completed, int total) {
+
+    }
+
+    /**
+     * Called when the Minecraft version and server details have been found
+     * @param minecraftVersion Minecraft version of the server
+     * @param serverDetails details of the server
+     */
+    public void informationFound(String minecraftVersion, String serverDetails) {
+
+    }
+
+    /**
+     * Called from the output thread for each line of output read from the
+     * server
+     * @param line line of output
+     */
+    public void lineRead(String line) {
+
+    }
+
+    /**
+     * Called from the probe thread once the server has finished starting and
+     * answers status requests
+     * @param record record of this launch
+     * @param regression regression if the server started slower than usual,
+     * otherwise null
+     */
+    public void started(LaunchRecord record, LaunchRegression regression) {
+
+    }
+
+    /**
+     * Called from the tick monitor thread each time the tick health of the
+     * server has been sampled
+     * @param tps ticks per second
+     * @param mspt milliseconds per tick, or NaN if the server doesn't report
+     * it
+     */
+    public void ticksSampled(double tps, double mspt) {
+
+    }
+
+    /**
+     * Called after the server process has stopped
+     * @param exitCode exit code of the server process
+     */
+    public void finished(int exitCode) {
+
+    }
+
+}
@@ -0,0 +1,232 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A class that queries the status of a Minecraft server using the Server
+ * List Ping protocol over a non-blocking socket
+ *
+ * @author Vector
+ */
+public class ServerListPing {
+
+    private static final int STATUS_PROTOCOL_VERSION = -1;
+    private static final int STATUS_STATE = 1;
+    private static final int STATUS_PACKET_ID = 0x00;
+    private static final int PING_PACKET_ID = 0x01;
+    private static final int MAX_PACKET_LENGTH = 1024 * 1024;
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+    private final long deadline;
+
+    private ServerListPing(SocketChannel channel, Selector selector, long timeoutMillis) throws IOException {
+        this.channel = channel;
+        this.selector = selector;
+        this.key = channel.register(selector, 0);
+        this.deadline = System.nanoTime() + timeoutMillis * 1000000;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+
+        for (int i = 0; i < 5; i++) {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException("Packet ended inside a VarInt");
+            }
+
+            byte b = buffer.get();
+            value |= (b & 0x7F) << (i * 7);
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("VarInt is too long");
+    }
+
+    private static ByteBuffer createPacket(int packetId, byte[] data) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ByteArrayOutputStream packet = new ByteArrayOutputStream();
+
+        writeVarInt(body, packetId);
+        body.write(data, 0, data.length);
+
+        writeVarInt(packet, body.size());
+        packet.write(body.toByteArray(), 0, body.size());
+
+        return ByteBuffer.wrap(packet.toByteArray());
+    }
+
+    private static ByteBuffer createHandshake(String host, int port) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] hostBytes = host.getBytes(StandardCharsets.UTF_8);
+
+        writeVarInt(data, STATUS_PROTOCOL_VERSION);
+        writeVarInt(data, hostBytes.length);
+        data.write(hostBytes, 0, hostBytes.length);
+        data.write((port >>> 8) & 0xFF);
+        data.write(port & 0xFF);
+        writeVarInt(data, STATUS_STATE);
+
+        return createPacket(0x00, data.toByteArray());
+    }
+
+    private void await(int operation) throws IOException {
+        long remaining = (deadline - System.nanoTime()) / 1000000;
+
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("Server did not answer in time");
+        }
+
+        key.interestOps(operation);
+        selector.select(remaining);
+        selector.selectedKeys().clear();
+    }
+
+    private void connect(InetSocketAddress address) throws IOException {
+        if (channel.connect(address)) {
+            return;
+        }
+
+        while (!channel.finishConnect()) {
+            await(SelectionKey.OP_CONNECT);
+        }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                await(SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer);
+
+            if (read == -1) {
+                throw new EOFException("Server closed the connection");
+            } else if (read == 0) {
+                await(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    private ByteBuffer readPacket() throws IOException {
+        ByteBuffer single = ByteBuffer.allocate(1);
+        int length = 0;
+
+        for (int i = 0; ; i++) {
+            if (i == 5) {
+                throw new IOException("Packet length is too long");
+            }
+
+            single.clear();
+            readFully(single);
+
+            byte b = single.get(0);
+            length |= (b & 0x7F) << (i * 7);
+
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+
+        if (length <= 0 || length > MAX_PACKET_LENGTH) {
+            throw new IOException("Invalid packet length: " + length);
+        }
+
+        ByteBuffer packet = ByteBuffer.allocate(length);
+
+        readFully(packet);
+        packet.flip();
+
+        return packet;
+    }
+
+    private ServerStatus query(InetSocketAddress address) throws IOException {
+        connect(address);
+
+        write(createHandshake(address.getHostString(), address.getPort()));
+        write(createPacket(STATUS_PACKET_ID, new byte[0]));
+
+        ByteBuffer response = readPacket();
+
+        if (readVarInt(response) != STATUS_PACKET_ID) {
+            throw new IOException("Unexpected status response");
+        }
+
+        int jsonLength = readVarInt(response);
+
+        if (jsonLength < 0 || jsonLength > response.remaining()) {
+            throw new IOException("Invalid status response length");
+        }
+
+        String jsonString = new String(response.array(), response.arrayOffset() + response.position(), jsonLength, StandardCharsets.UTF_8);
+        long payload = System.nanoTime();
+        long latency = -1;
+
+        write(createPacket(PING_PACKET_ID, ByteBuffer.allocate(8).putLong(payload).array()));
+
+        try {
+            ByteBuffer pong = readPacket();
+
+            if (readVarInt(pong) == PING_PACKET_ID && pong.remaining() >= 8 && pong.getLong() == payload) {
+                latency = (System.nanoTime() - payload) / 1000000;
+            }
+        } catch (IOException ex) {
+
+        }
+
+        try {
+            return ServerStatus.fromJSON(new JSONObject(jsonString), latency);
+        } catch (JSONException ex) {
+            throw new IOException("Invalid status response", ex);
+        }
+    }
+
+    /**
+     * Queries the status of the server at the specified address
+     * @param address address of the server
+     * @param timeoutMillis maximum time to wait for the server, in
+     * milliseconds
+     * @return status of the server
+     * @throws IOException if the server could not be reached or didn't answer
+     * with a valid status in time
+     */
+    public static ServerStatus ping(InetSocketAddress address, long timeoutMillis) throws IOException {
+        try (Selector selector = Selector.open();
+             SocketChannel channel = SocketChannel.open()) {
+            channel.configureBlocking(false);
+
+            ServerListPing ping = new ServerListPing(channel, selector, timeoutMillis);
+
+            return ping.query(address);
+        }
+    }
+
+}
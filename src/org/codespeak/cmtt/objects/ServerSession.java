@@ -0,0 +1,161 @@
+package org.codespeak.cmtt.objects;
+
+import org.codespeak.cmtt.profiles.JavaProfile;
+import org.codespeak.cmtt.profiles.ServerProfile;
+
+/**
+ * A class representing a server profile being run from a development
+ * profile. A session outlives the launches it makes, so its console, crash
+ * history and status are kept across restarts
+ *
+ * @author Vector
+ */
+public class ServerSession {
+
+    private final int id;
+    private final ServerProfile serverProfile;
+    private final ConsoleBuffer consoleBuffer = new ConsoleBuffer();
+    private final CrashWatchdog crashWatchdog = new CrashWatchdog();
+    private JavaProfile javaProfile = null;
+    private ServerLauncher launcher = null;
+    private boolean debugMode = false;
+    private boolean active = false;
+    private boolean restartPending = false;
+    private String status = "";
+
+    public ServerSession(int id, ServerProfile serverProfile) {
+        this.id = id;
+        this.serverProfile = serverProfile;
+    }
+
+    /**
+     * Gets the ID of this session, unique within its session manager
+     * @return ID of this session
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the server profile run by this session
+     * @return server profile run by this session
+     */
+    public ServerProfile getServerProfile() {
+        return serverProfile;
+    }
+
+    /**
+     * Gets the buffer holding the server output of every launch of this
+     * session
+     * @return buffer holding the server output of this session
+     */
+    public ConsoleBuffer getConsoleBuffer() {
+        return consoleBuffer;
+    }
+
+    /**
+     * Gets the crash watchdog of this session
+     * @return crash watchdog of this session
+     */
+    public CrashWatchdog getCrashWatchdog() {
+        return crashWatchdog;
+    }
+
+    /**
+     * Gets the Java profile of the latest launch of this session
+     * @return Java profile of the latest launch, or null for the system Java
+     * installation
+     */
+    public JavaProfile getJavaProfile() {
+        return javaProfile;
+    }
+
+    /**
+     * Gets the launcher of the latest launch of this session
+     * @return launcher of the latest launch, or null if this session hasn't
+     * launched yet
+     */
+    public ServerLauncher getLauncher() {
+        return launcher;
+    }
+
+    /**
+     * Sets the launcher of a new launch of this session
+     * @param launcher launcher of the new launch
+     * @param javaProfile Java profile of the new launch, or null for the
+     * system Java installation
+     * @param debugMode whether the new launch is in debug mode
+     */
+    public void setLauncher(ServerLauncher launcher, JavaProfile javaProfile, boolean debugMode) {
+        this.launcher = launcher;
+        this.javaProfile = javaProfile;
+        this.debugMode = debugMode;
+    }
+
+    /**
+     * Gets whether the latest launch of this session is in debug mode
+     * @return whether the latest launch is in debug mode
+     */
+    public boolean isDebugMode() {
+        return debugMode;
+    }
+
+    /**
+     * Gets if this session is preparing or running a server
+     * @return if this session is preparing or running a server
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Sets if this session is preparing or running a server
+     * @param active if this session is preparing or running a server
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    /**
+     * Gets if this session should launch again once its server stops
+     * @return if this session should launch again once its server stops
+     */
+    public boolean isRestartPending() {
+        return restartPending;
+    }
+
+    /**
+     * Sets if this session should launch again once its server stops
+     * @param restartPending if this session should launch again
+     */
+    public void setRestartPending(boolean restartPending) {
+        this.restartPending = restartPending;
+    }
+
+    /**
+     * Gets the latest status message of this session
+     * @return latest status message of this session
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the latest status message of this session
+     * @param status status message
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets a name describing this session and its state
+     * @return name describing this session and its state
+     */
+    public String getDisplayName() {
+        String state = (!active ? "stopped" : (launcher != null && launcher.getPort() > 0 ? "port " + launcher.getPort() : "preparing"));
+
+        return "#" + id + " " + serverProfile.getName() + " (" + state + ")";
+    }
+
+}
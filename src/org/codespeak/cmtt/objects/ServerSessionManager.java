@@ -0,0 +1,132 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.codespeak.cmtt.profiles.DevelopmentProfile;
+import org.codespeak.cmtt.profiles.ServerProfile;
+
+/**
+ * A class that keeps the server sessions of a development profile, so
+ * several server profiles can run side by side. Each server profile has at
+ * most one session, since its folder can only be used by one server at a
+ * time. All sessions load the plugins folder of the development profile, so
+ * plugins running in several sessions at once share their data folders
+ *
+ * @author Vector
+ */
+public class ServerSessionManager {
+
+    private final DevelopmentProfile developmentProfile;
+    private final List<ServerSession> sessions = new ArrayList<ServerSession>();
+    private int nextId = 1;
+
+    public ServerSessionManager(DevelopmentProfile developmentProfile) {
+        this.developmentProfile = developmentProfile;
+    }
+
+    /**
+     * Gets the development profile the sessions belong to
+     * @return development profile the sessions belong to
+     */
+    public DevelopmentProfile getDevelopmentProfile() {
+        return developmentProfile;
+    }
+
+    /**
+     * Gets the session of the specified server profile
+     * @param serverProfile server profile of the session
+     * @return session of the server profile, or null if it has none
+     */
+    public synchronized ServerSession getSession(ServerProfile serverProfile) {
+        for (ServerSession session : sessions) {
+            if (session.getServerProfile() == serverProfile) {
+                return session;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the session of the specified server profile, creating it if it
+     * has none
+     * @param serverProfile server profile of the session
+     * @return session of the server profile
+     */
+    public synchronized ServerSession getOrCreateSession(ServerProfile serverProfile) {
+        ServerSession session = getSession(serverProfile);
+
+        if (session == null) {
+            session = new ServerSession(nextId++, serverProfile);
+
+            sessions.add(session);
+        }
+
+        return session;
+    }
+
+    /**
+     * Gets all sessions, in the order they were created
+     * @return all sessions
+     */
+    public synchronized List<ServerSession> getSessions() {
+        return new ArrayList<ServerSession>(sessions);
+    }
+
+    /**
+     * Gets the sessions that are preparing or running a server
+     * @return sessions that are preparing or running a server
+     */
+    public synchronized List<ServerSession> getActiveSessions() {
+        List<ServerSession> activeSessions = new ArrayList<ServerSession>();
+
+        for (ServerSession session : sessions) {
+            if (session.isActive()) {
+                activeSessions.add(session);
+            }
+        }
+
+        return activeSessions;
+    }
+
+    /**
+     * Gets if any session is preparing or running a server
+     * @return if any session is preparing or running a server
+     */
+    public synchronized boolean hasActiveSessions() {
+        for (ServerSession session : sessions) {
+            if (session.isActive()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Stops the servers of every session, forcibly stopping any that are
+     * still running after the timeout. Sessions that are still preparing
+     * stop preparing instead, and no session restarts afterwards
+     * @param timeout maximum time each server has to stop gracefully
+     * @param unit unit of the timeout
+     */
+    public synchronized void stopAll(long timeout, TimeUnit unit) {
+        for (ServerSession session : sessions) {
+            ServerLauncher launcher = session.getLauncher();
+
+            session.setRestartPending(false);
+
+            if (launcher == null || !session.isActive()) {
+                continue;
+            }
+
+            if (launcher.isRunning()) {
+                launcher.stop(timeout, unit);
+            } else {
+                launcher.detach();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.codespeak.cmtt.objects;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A class representing the status a Minecraft server reports through the
+ * Server List Ping protocol
+ *
+ * @author Vector
+ */
+public class ServerStatus {
+
+    private final int protocolVersion;
+    private final String versionName;
+    private final String motd;
+    private final int onlinePlayers;
+    private final int maxPlayers;
+    private final long latency;
+
+    public ServerStatus(int protocolVersion, String versionName, String motd, int onlinePlayers, int maxPlayers, long latency) {
+        this.protocolVersion = protocolVersion;
+        this.versionName = versionName;
+        this.motd = motd;
+        this.onlinePlayers = onlinePlayers;
+        this.maxPlayers = maxPlayers;
+        this.latency = latency;
+    }
+
+    /**
+     * Gets the protocol version of the server
+     * @return protocol version of the server
+     */
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    /**
+     * Gets if the server reported its version. Older servers answer status
+     * requests while their worlds are still loading, but leave out their
+     * version until they have finished starting
+     * @return if the server reported its version
+     */
+    public boolean hasVersion() {
+        return protocolVersion != -1;
+    }
+
+    /**
+     * Gets the version name of the server
+     * @return version name of the server
+     */
+    public String getVersionName() {
+        return versionName;
+    }
+
+    /**
+     * Gets the message of the day of the server without formatting codes
+     * @return message of the day of the server
+     */
+    public String getMOTD() {
+        return motd;
+    }
+
+    /**
+     * Gets the number of players online
+     * @return number of players online
+     */
+    public int getOnlinePlayers() {
+        return onlinePlayers;
+    }
+
+    /**
+     * Gets the maximum number of players
+     * @return maximum number of players
+     */
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    /**
+     * Gets the time the server took to answer a ping, in milliseconds
+     * @return time the server took to answer a ping, in milliseconds
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    private static void appendText(Object component, StringBuilder sb) {
+        if (component instanceof String) {
+            sb.append((String) component);
+        } else if (component instanceof JSONObject) {
+            JSONObject json = (JSONObject) component;
+
+            sb.append(json.optString("text"));
+
+            JSONArray extra = json.optJSONArray("extra");
+
+            if (extra != null) {
+                for (int i = 0; i < extra.length(); i++) {
+                    appendText(extra.get(i), sb);
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a ServerStatus object from the JSON status response of a
+     * server
+     * @param json JSON status response
+     * @param latency time the server took to answer a ping, in milliseconds
+     * @return ServerStatus object from JSON
+     */
+    public static ServerStatus fromJSON(JSONObject json, long latency) {
+        int protocolVersion = -1;
+        String versionName = "";
+        String motd = "";
+        int onlinePlayers = 0;
+        int maxPlayers = 0;
+
+        if (json.has("version")) {
+            JSONObject versionJson = json.getJSONObject("version");
+
+            protocolVersion = versionJson.optInt("protocol", -1);
+            versionName = versionJson.optString("name");
+        }
+
+        if (json.has("description")) {
+            StringBuilder sb = new StringBuilder();
+
+            appendText(json.get("description"), sb);
+
+            motd = sb.toString().replaceAll("\\u00A7.", "").trim();
+        }
+
+        if (json.has("players")) {
+            JSONObject playersJson = json.getJSONObject("players");
+
+            onlinePlayers = playersJson.optInt("online");
+            maxPlayers = playersJson.optInt("max");
+        }
+
+        return new ServerStatus(protocolVersion, versionName, motd, onlinePlayers, maxPlayers, latency);
+    }
+
+}
@@ -7,27 +7,29 @@ package org.codespeak.cmtt.objects;
  */
 public enum ServerTypes {
     
-    BUKKIT("Bukkit", "--plugins", "--world", "--world-dir"),
-    SPIGOT("Spigot", "--plugins", "--world", "--world-dir"),
-    PAPER("Paper", "--plugins", "--world", "--world-dir"),
-    GLOWSTONE("Glowstone", "--plugins-dir", "--world-name", "--worlds-dir"),
-    VANILLA("Vanilla", "", "--world", "--universe"),
+    BUKKIT("Bukkit", "--plugins", "--world", "--world-dir", "reload confirm"),
+    SPIGOT("Spigot", "--plugins", "--world", "--world-dir", "reload confirm"),
+    PAPER("Paper", "--plugins", "--world", "--world-dir", "reload confirm"),
+    GLOWSTONE("Glowstone", "--plugins-dir", "--world-name", "--worlds-dir", "reload"),
+    VANILLA("Vanilla", "", "--world", "--universe", ""),
     CUSTOM("Custom");
     
     private final String name;
     private final String pluginsFolderArgument;
     private final String worldNameArgument;
     private final String worldsFolderArgument;
+    private final String reloadCommand;
     
     private ServerTypes(String name) {
-        this(name, "", "", "");
+        this(name, "", "", "", "");
     }
     
-    private ServerTypes(String name, String pluginsFolderArgument, String worldNameArgument, String worldsFolderArgument) {
+    private ServerTypes(String name, String pluginsFolderArgument, String worldNameArgument, String worldsFolderArgument, String reloadCommand) {
         this.name = name;
         this.pluginsFolderArgument = pluginsFolderArgument;
         this.worldNameArgument = worldNameArgument;
         this.worldsFolderArgument = worldsFolderArgument;
+        this.reloadCommand = reloadCommand;
     }
     
     /**
@@ -62,6 +64,15 @@ public enum ServerTypes {
         return worldsFolderArgument;
     }
     
+    /**
+     * Gets the console command that reloads plugins, or an empty string if
+     * this server type cannot reload plugins
+     * @return console command that reloads plugins
+     */
+    public String getReloadCommand() {
+        return reloadCommand;
+    }
+    
     /**
      * Checks to see if this server type is among the list of passed in
      * server types
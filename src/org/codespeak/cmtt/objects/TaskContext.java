@@ -0,0 +1,30 @@
+package org.codespeak.cmtt.objects;
+
+/**
+ * An interface for long running work to report its progress and check if
+ * it has been cancelled
+ *
+ * @author Vector
+ */
+public interface TaskContext {
+
+    /**
+     * Reports how much of the work is done
+     * @param workDone amount of work done
+     * @param totalWork total amount of work, or -1 if it isn't known
+     */
+    public void updateProgress(long workDone, long totalWork);
+
+    /**
+     * Reports what the work is currently doing
+     * @param message message describing the current work
+     */
+    public void updateMessage(String message);
+
+    /**
+     * Gets if the work has been cancelled and should stop as soon as it can
+     * @return if the work has been cancelled
+     */
+    public boolean isCancelled();
+
+}
@@ -0,0 +1,311 @@
+package org.codespeak.cmtt.objects;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.profiles.DevelopmentProfile;
+import org.codespeak.cmtt.profiles.JavaProfile;
+import org.codespeak.cmtt.profiles.ServerProfile;
+import org.codespeak.cmtt.util.StringUtil;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A class that runs a development profile against every combination of a
+ * set of server profiles and Java profiles at the same time. Each run gets
+ * its own folder, port and worlds, and the number of runs at once is limited
+ * by the cores and memory of this machine
+ *
+ * @author Vector
+ */
+public class TestMatrix {
+
+    private static final Pattern ERROR_PATTERN = Pattern.compile("[\\[/](ERROR|SEVERE|FATAL)\\]");
+    private static final long DEFAULT_MEMORY = 1024L * 1024 * 1024;
+    private static final long STOP_TIMEOUT_SECONDS = 60;
+    private static final int MAX_ERRORS = 50;
+
+    private final DevelopmentProfile developmentProfile;
+    private final List<ServerProfile> serverProfiles;
+    private final List<JavaProfile> javaProfiles;
+    private final long timeoutSeconds;
+    private final Path matrixPath;
+
+    /**
+     * Creates a test matrix
+     * @param developmentProfile development profile to run
+     * @param serverProfiles server profiles to run on
+     * @param javaProfiles Java profiles to run with. A null entry stands for
+     * the system Java installation
+     * @param timeoutSeconds maximum time each server may take to start
+     */
+    public TestMatrix(DevelopmentProfile developmentProfile, List<ServerProfile> serverProfiles,
+                      List<JavaProfile> javaProfiles, long timeoutSeconds) {
+        this.developmentProfile = developmentProfile;
+        this.serverProfiles = new ArrayList<ServerProfile>(serverProfiles);
+        this.javaProfiles = new ArrayList<JavaProfile>(javaProfiles);
+        this.timeoutSeconds = timeoutSeconds;
+
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+
+        this.matrixPath = Paths.get(Configuration.MATRIX_FOLDER, sdf.format(new Date())).toAbsolutePath();
+    }
+
+    private static long parseMemory(String memory) {
+        if (StringUtil.isNullOrEmpty(memory)) {
+            return -1;
+        }
+
+        String value = memory.trim().toUpperCase();
+        long multiplier = 1;
+        char unit = value.charAt(value.length() - 1);
+
+        switch (unit) {
+            case 'K':
+                multiplier = 1024L;
+                break;
+            case 'M':
+                multiplier = 1024L * 1024;
+                break;
+            case 'G':
+                multiplier = 1024L * 1024 * 1024;
+                break;
+            case 'T':
+                multiplier = 1024L * 1024 * 1024 * 1024;
+                break;
+        }
+
+        if (multiplier > 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(value) * multiplier;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // getTotalMemorySize replaced this method in Java 14, but doesn't exist on
+    // the Java 8 runtimes this still supports
+    @SuppressWarnings("deprecation")
+    private static long getTotalPhysicalMemory() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) bean).getTotalPhysicalMemorySize();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the number of servers of the specified development profile that
+     * can run at once on this machine. Each server is given two cores, and
+     * all servers together may use up to three quarters of physical memory
+     * @param developmentProfile development profile to check
+     * @return number of servers that can run at once
+     */
+    public static int getConcurrencyLimit(DevelopmentProfile developmentProfile) {
+        int limit = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        long memoryPerServer = parseMemory(developmentProfile.getUpperMemory());
+        long totalMemory = getTotalPhysicalMemory();
+
+        if (memoryPerServer <= 0) {
+            memoryPerServer = DEFAULT_MEMORY;
+        }
+
+        if (totalMemory > 0) {
+            limit = (int) Math.min(limit, Math.max(1, (totalMemory / 4 * 3) / memoryPerServer));
+        }
+
+        return limit;
+    }
+
+    /**
+     * Gets the folder the runs and report of this test matrix are kept in
+     * @return folder the runs and report of this test matrix are kept in
+     */
+    public Path getMatrixPath() {
+        return matrixPath;
+    }
+
+    /**
+     * Gets the path of the report of this test matrix
+     * @return path of the report of this test matrix
+     */
+    public Path getReportPath() {
+        return matrixPath.resolve("report.json");
+    }
+
+    private void prepareProfiles() throws IOException, InterruptedException {
+        for (ServerProfile serverProfile : new LinkedHashSet<ServerProfile>(serverProfiles)) {
+            if (!serverProfile.hasNecessaryFiles() || (developmentProfile.isUpdatingOutdatedServerAutomatically() && serverProfile.canUpdate())) {
+                serverProfile.update();
+            }
+        }
+
+        List<Plugin> plugins = developmentProfile.getPlugins();
+
+        if (!plugins.isEmpty()) {
+            PluginSynchronizer synchronizer = new PluginSynchronizer(plugins, developmentProfile.getPluginsLocation().toAbsolutePath(),
+                                                                     developmentProfile.isUpdatingOutdatedPluginsAutomatically());
+
+            synchronizer.synchronize();
+        }
+    }
+
+    private TestMatrixResult runServer(ServerProfile serverProfile, JavaProfile javaProfile) {
+        String serverProfileName = serverProfile.getName();
+        String javaProfileName = (javaProfile != null ? javaProfile.getName() : "System");
+        Path runPath = matrixPath.resolve(serverProfile.getId() + "-" + (javaProfile != null ? javaProfile.getId() : "system"));
+        List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+
+        ServerLauncher launcher = new ServerLauncher(developmentProfile, serverProfile, javaProfile, new ConsoleBuffer(), runPath) {
+            @Override
+            public void lineRead(String line) {
+                if (errors.size() < MAX_ERRORS && ERROR_PATTERN.matcher(line).find()) {
+                    errors.add(line);
+                }
+            }
+        };
+
+        String startProblem = launcher.getStartProblem();
+
+        if (startProblem != null) {
+            return new TestMatrixResult(serverProfileName, javaProfileName, false, false, -1, startProblem, errors);
+        }
+
+        try {
+            launcher.prepare();
+            launcher.launch(false);
+
+            boolean booted = launcher.waitUntilStarted(timeoutSeconds, TimeUnit.SECONDS);
+            boolean timedOut = !booted && launcher.isRunning();
+
+            if (!booted || !launcher.stop(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                launcher.destroy();
+            }
+
+            launcher.waitUntilStopped(STOP_TIMEOUT_SECONDS * 2, TimeUnit.SECONDS);
+
+            LaunchRecord record = launcher.getLaunchRecord();
+            double startTime = (record != null ? record.getStartTime() : -1);
+
+            return new TestMatrixResult(serverProfileName, javaProfileName, booted, timedOut, startTime, null, new ArrayList<String>(errors));
+        } catch (IOException ex) {
+            launcher.destroy();
+
+            return new TestMatrixResult(serverProfileName, javaProfileName, false, false, -1, ex.getMessage(), new ArrayList<String>(errors));
+        } catch (InterruptedException ex) {
+            launcher.destroy();
+            Thread.currentThread().interrupt();
+
+            return new TestMatrixResult(serverProfileName, javaProfileName, false, false, -1, "Interrupted", new ArrayList<String>(errors));
+        }
+    }
+
+    private void saveReport(List<TestMatrixResult> results) throws IOException {
+        JSONObject json = new JSONObject();
+        JSONArray resultsJson = new JSONArray();
+
+        for (TestMatrixResult result : results) {
+            resultsJson.put(result.toJSON());
+        }
+
+        json.put("development_profile", developmentProfile.getName());
+        json.put("results", resultsJson);
+
+        Files.write(getReportPath(), json.toString(4).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Runs every combination of server and Java profile, and writes a report
+     * of the results to the matrix folder
+     * @return results of each run, in the order of the server and Java
+     * profiles
+     * @throws IOException if the matrix folder or report could not be written
+     * @throws InterruptedException if interrupted while running
+     */
+    public List<TestMatrixResult> run() throws IOException, InterruptedException {
+        Files.createDirectories(matrixPath);
+
+        prepareProfiles();
+
+        int limit = getConcurrencyLimit(developmentProfile);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(limit, (Runnable runnable) -> {
+            Thread thread = new Thread(runnable, "Test Matrix " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        List<Future<TestMatrixResult>> futures = new ArrayList<Future<TestMatrixResult>>();
+        Set<String> combinations = new LinkedHashSet<String>();
+
+        for (ServerProfile serverProfile : serverProfiles) {
+            for (JavaProfile javaProfile : javaProfiles) {
+                String combination = serverProfile.getId() + "-" + (javaProfile != null ? javaProfile.getId() : 0);
+
+                if (combinations.add(combination)) {
+                    futures.add(executor.submit(() -> {
+                        TestMatrixResult result = runServer(serverProfile, javaProfile);
+
+                        resultReady(result);
+
+                        return result;
+                    }));
+                }
+            }
+        }
+
+        executor.shutdown();
+
+        List<TestMatrixResult> results = new ArrayList<TestMatrixResult>();
+
+        try {
+            for (Future<TestMatrixResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ex) {
+                    throw new IOException(ex.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        saveReport(results);
+
+        return results;
+    }
+
+    /**
+     * Called from a run thread as soon as a run has finished
+     * @param result result of the run
+     */
+    public void resultReady(TestMatrixResult result) {
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A class representing the result of one run of a test matrix
+ *
+ * @author Vector
+ */
+public class TestMatrixResult {
+
+    private final String serverProfileName;
+    private final String javaProfileName;
+    private final boolean booted;
+    private final boolean timedOut;
+    private final double startTime;
+    private final String failure;
+    private final List<String> errors;
+
+    public TestMatrixResult(String serverProfileName, String javaProfileName, boolean booted, boolean timedOut,
+                            double startTime, String failure, List<String> errors) {
+        this.serverProfileName = serverProfileName;
+        this.javaProfileName = javaProfileName;
+        this.booted = booted;
+        this.timedOut = timedOut;
+        this.startTime = startTime;
+        this.failure = failure;
+        this.errors = errors;
+    }
+
+    /**
+     * Gets the name of the server profile of this run
+     * @return name of the server profile of this run
+     */
+    public String getServerProfileName() {
+        return serverProfileName;
+    }
+
+    /**
+     * Gets the name of the Java profile of this run
+     * @return name of the Java profile of this run
+     */
+    public String getJavaProfileName() {
+        return javaProfileName;
+    }
+
+    /**
+     * Gets if the server finished starting
+     * @return if the server finished starting
+     */
+    public boolean isBooted() {
+        return booted;
+    }
+
+    /**
+     * Gets if the server was still starting when the run timed out
+     * @return if the server was still starting when the run timed out
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Gets the start time of the server in seconds
+     * @return start time of the server in seconds, or -1 if the server didn't
+     * finish starting
+     */
+    public double getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets a message describing why the server could not be started
+     * @return message describing why the server could not be started, or
+     * null if it was started
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Gets the error lines found in the server output
+     * @return error lines found in the server output
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets if this run passed. A run passes if the server finished starting
+     * without logging any errors
+     * @return if this run passed
+     */
+    public boolean isPassed() {
+        return booted && errors.isEmpty();
+    }
+
+    /**
+     * Converts this object to JSON
+     * @return JSON representation of this object
+     */
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+
+        json.put("server_profile", serverProfileName);
+        json.put("java_profile", javaProfileName);
+        json.put("booted", booted);
+        json.put("timed_out", timedOut);
+        json.put("start_time", startTime);
+
+        if (failure != null) {
+            json.put("failure", failure);
+        }
+
+        json.put("errors", new JSONArray(errors));
+
+        return json;
+    }
+
+}
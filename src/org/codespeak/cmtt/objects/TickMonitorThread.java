@@ -0,0 +1,191 @@
+package org.codespeak.cmtt.objects;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A thread that samples the tick health of a running server on a schedule.
+ * Servers that answer the tps and mspt commands over RCON, such as Paper,
+ * are asked directly. Other servers have their ticks per second estimated
+ * from the "Can't keep up!" warnings in their log
+ *
+ * @author Vector
+ */
+public class TickMonitorThread extends LightweightThread {
+
+    /**
+     * Number of ticks per second of a server that keeps up
+     */
+    public static final double TARGET_TPS = 20.0;
+
+    /**
+     * Milliseconds per tick of a server that keeps up
+     */
+    public static final double TARGET_MSPT = 50.0;
+
+    private static final long POLL_INTERVAL_MILLIS = 2000;
+    private static final long COMMAND_TIMEOUT_MILLIS = 1500;
+    private static final int SAMPLE_CAPACITY = 150;
+    private static final int RCON_ATTEMPTS = 3;
+    private static final long MAX_WARNING_WINDOW_MILLIS = 15000;
+    private static final Pattern FORMATTING_PATTERN = Pattern.compile("\u00A7.");
+    private static final Pattern TPS_PATTERN = Pattern.compile("TPS from last[^:]*:\\D*?(\\d+(?:\\.\\d+)?)");
+    private static final Pattern MSPT_PATTERN = Pattern.compile("tick times[^:]*:\\D*?(\\d+(?:\\.\\d+)?)");
+    private static final Pattern BEHIND_PATTERN = Pattern.compile("Can't keep up!.*?Running (\\d+)ms");
+
+    private final Process process;
+    private final ServerLauncher launcher;
+    private final TickSampleBuffer tpsSamples = new TickSampleBuffer(SAMPLE_CAPACITY);
+    private final TickSampleBuffer msptSamples = new TickSampleBuffer(SAMPLE_CAPACITY);
+    private volatile boolean usingRcon = false;
+    private long behindMillis = 0;
+    private long lastWarningTime;
+
+    public TickMonitorThread(Process process, ServerLauncher launcher) {
+        super("Tick Monitor");
+
+        this.process = process;
+        this.launcher = launcher;
+        this.lastWarningTime = System.currentTimeMillis();
+    }
+
+    private static double parseSample(Pattern pattern, String response) {
+        if (response == null) {
+            return Double.NaN;
+        }
+
+        Matcher matcher = pattern.matcher(FORMATTING_PATTERN.matcher(response).replaceAll(""));
+
+        if (!matcher.find()) {
+            return Double.NaN;
+        }
+
+        try {
+            return Double.parseDouble(matcher.group(1));
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private String execute(String command) throws InterruptedException {
+        try {
+            return launcher.executeCommand(command).get(COMMAND_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ex) {
+            return null;
+        }
+    }
+
+    private synchronized double takeEstimatedTPS() {
+        if (behindMillis == 0) {
+            return TARGET_TPS;
+        }
+
+        long window = Math.min(Math.max(System.currentTimeMillis() - lastWarningTime, POLL_INTERVAL_MILLIS), MAX_WARNING_WINDOW_MILLIS);
+        double tps = TARGET_TPS * Math.max(0, window - behindMillis) / window;
+
+        behindMillis = 0;
+        lastWarningTime = System.currentTimeMillis();
+
+        return tps;
+    }
+
+    /**
+     * Passes a line of server output to this monitor so warnings about
+     * falling behind can be picked up
+     * @param line line of server output
+     */
+    public synchronized void lineRead(String line) {
+        if (usingRcon) {
+            return;
+        }
+
+        Matcher matcher = BEHIND_PATTERN.matcher(line);
+
+        if (matcher.find()) {
+            behindMillis += Long.parseLong(matcher.group(1));
+        }
+    }
+
+    @Override
+    public void run() {
+        int rconAttempts = 0;
+
+        try {
+            while (process.isAlive() && !isInterrupted()) {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+
+                double tps = Double.NaN;
+                double mspt = Double.NaN;
+
+                if (usingRcon || (rconAttempts < RCON_ATTEMPTS && launcher.hasRcon())) {
+                    tps = parseSample(TPS_PATTERN, execute("tps"));
+                    mspt = parseSample(MSPT_PATTERN, execute("mspt"));
+
+                    if (!usingRcon) {
+                        rconAttempts++;
+                        usingRcon = !Double.isNaN(tps);
+                    }
+                }
+
+                if (!usingRcon) {
+                    tps = takeEstimatedTPS();
+                    mspt = Double.NaN;
+                }
+
+                if (Double.isNaN(tps)) {
+                    continue;
+                }
+
+                tpsSamples.add(Math.min(tps, TARGET_TPS));
+
+                if (!Double.isNaN(mspt)) {
+                    msptSamples.add(mspt);
+                }
+
+                sampled(tps, mspt);
+            }
+        } catch (InterruptedException ex) {
+
+        }
+    }
+
+    /**
+     * Gets if samples come from the server over RCON rather than being
+     * estimated from its log
+     * @return if samples come from the server over RCON
+     */
+    public boolean isUsingRcon() {
+        return usingRcon;
+    }
+
+    /**
+     * Gets the ticks per second samples taken so far
+     * @return ticks per second samples taken so far
+     */
+    public TickSampleBuffer getTPSSamples() {
+        return tpsSamples;
+    }
+
+    /**
+     * Gets the milliseconds per tick samples taken so far. Only servers
+     * sampled over RCON report milliseconds per tick
+     * @return milliseconds per tick samples taken so far
+     */
+    public TickSampleBuffer getMSPTSamples() {
+        return msptSamples;
+    }
+
+    /**
+     * Called from this thread each time a sample has been taken
+     * @param tps ticks per second
+     * @param mspt milliseconds per tick, or NaN if the server doesn't report
+     * it
+     */
+    public void sampled(double tps, double mspt) {
+
+    }
+
+}
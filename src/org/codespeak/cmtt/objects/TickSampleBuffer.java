@@ -0,0 +1,102 @@
+package org.codespeak.cmtt.objects;
+
+/**
+ * A fixed-size ring buffer of tick samples. Samples are kept in a primitive
+ * array so polling a server for hours doesn't allocate anything, and the
+ * oldest sample is overwritten once the buffer is full
+ *
+ * @author Vector
+ */
+public class TickSampleBuffer {
+
+    private final double[] samples;
+    private int next = 0;
+    private int size = 0;
+
+    public TickSampleBuffer(int capacity) {
+        this.samples = new double[capacity];
+    }
+
+    /**
+     * Adds a sample, overwriting the oldest sample if the buffer is full
+     * @param sample sample to add
+     */
+    public synchronized void add(double sample) {
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Gets the maximum number of samples kept
+     * @return maximum number of samples kept
+     */
+    public int getCapacity() {
+        return samples.length;
+    }
+
+    /**
+     * Gets the number of samples kept
+     * @return number of samples kept
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the newest sample
+     * @return newest sample, or NaN if there are no samples
+     */
+    public synchronized double getLatest() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+
+        return samples[(next - 1 + samples.length) % samples.length];
+    }
+
+    /**
+     * Gets the highest sample kept
+     * @return highest sample kept, or NaN if there are no samples
+     */
+    public synchronized double getMax() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+
+        double max = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, samples[i]);
+        }
+
+        return max;
+    }
+
+    /**
+     * Copies the samples kept into a new array
+     * @return samples kept, from oldest to newest
+     */
+    public synchronized double[] toArray() {
+        double[] copy = new double[size];
+        int start = (next - size + samples.length) % samples.length;
+
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples[(start + i) % samples.length];
+        }
+
+        return copy;
+    }
+
+    /**
+     * Removes all samples
+     */
+    public synchronized void clear() {
+        next = 0;
+        size = 0;
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.codespeak.cmtt.objects.BackgroundTask;
+
+/**
+ * A handler that runs background tasks on a shared pool of worker threads,
+ * so long file operations never run on the JavaFX thread
+ *
+ * @author Vector
+ */
+public class BackgroundTaskHandler {
+
+    private static final int MAX_THREADS = 2;
+    private static final List<BackgroundTask<?>> runningTasks = new ArrayList<BackgroundTask<?>>();
+    private static ExecutorService executor = null;
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+
+            executor = Executors.newFixedThreadPool(MAX_THREADS, (Runnable runnable) -> {
+                Thread thread = new Thread(runnable, "Background Task " + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        }
+
+        return executor;
+    }
+
+    /**
+     * Submits a task to run in the background
+     * @param task task to run
+     */
+    public static void submit(BackgroundTask<?> task) {
+        synchronized (runningTasks) {
+            runningTasks.add(task);
+        }
+
+        getExecutor().execute(() -> {
+            try {
+                task.run();
+            } finally {
+                synchronized (runningTasks) {
+                    runningTasks.remove(task);
+                    runningTasks.notifyAll();
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the tasks that are waiting or running
+     * @return tasks that are waiting or running
+     */
+    public static List<BackgroundTask<?>> getRunningTasks() {
+        synchronized (runningTasks) {
+            return new ArrayList<BackgroundTask<?>>(runningTasks);
+        }
+    }
+
+    /**
+     * Cancels every task that is waiting or running
+     */
+    public static void cancelAll() {
+        for (BackgroundTask<?> task : getRunningTasks()) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Waits for every task that is waiting or running to finish
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return if every task finished within the time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static boolean awaitRunningTasks(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (runningTasks) {
+            while (!runningTasks.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(runningTasks, remaining);
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,181 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.util.ChecksumUtil;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A handler for a persistent cache of file checksums. A checksum is only
+ * recomputed when the size, last modified time or file key of a file changes
+ *
+ * @author Vector
+ */
+public class ChecksumCacheHandler {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private static class CacheEntry {
+
+        private final long size;
+        private final long lastModified;
+        private final String fileKey;
+        private final String checksum;
+
+        private CacheEntry(long size, long lastModified, String fileKey, String checksum) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+            this.checksum = checksum;
+        }
+
+        private boolean matches(BasicFileAttributes attr) {
+            return size == attr.size()
+                    && lastModified == attr.lastModifiedTime().toMillis()
+                    && fileKey.equals(getFileKey(attr));
+        }
+
+    }
+
+    private static final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static String getFileKey(BasicFileAttributes attr) {
+        Object fileKey = attr.fileKey();
+
+        return (fileKey != null ? fileKey.toString() : "");
+    }
+
+    private static String getKey(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Gets the checksum of the specified file, using the cached checksum if
+     * the file has not changed since it was last computed
+     * @param path path to file
+     * @return checksum of the file, or an empty string if the file could not
+     * be read
+     */
+    public static String getChecksum(Path path) {
+        String key = getKey(path);
+        BasicFileAttributes attr = null;
+
+        try {
+            attr = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            invalidate(path);
+
+            return "";
+        }
+
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+
+            if (entry != null && entry.matches(attr)) {
+                return entry.checksum;
+            }
+        }
+
+        String checksum = ChecksumUtil.getChecksum(path);
+
+        if (!checksum.isEmpty()) {
+            CacheEntry entry = new CacheEntry(attr.size(), attr.lastModifiedTime().toMillis(), getFileKey(attr), checksum);
+
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+        }
+
+        return checksum;
+    }
+
+    /**
+     * Removes the cached checksum of the specified file
+     * @param path path to file
+     */
+    public static void invalidate(Path path) {
+        synchronized (entries) {
+            entries.remove(getKey(path));
+        }
+    }
+
+    /**
+     * Loads the checksum cache from the checksum cache file
+     */
+    public static void loadCache() {
+        File cacheFile = new File(Configuration.CHECKSUM_CACHE_FILE);
+
+        if (!cacheFile.exists()) {
+            return;
+        }
+
+        try {
+            byte[] bytes = Files.readAllBytes(cacheFile.toPath());
+            JSONObject json = new JSONObject(new String(bytes));
+
+            if (json.has("checksums")) {
+                JSONArray checksumsJson = json.getJSONArray("checksums");
+
+                synchronized (entries) {
+                    for (int i = 0; i < checksumsJson.length(); i++) {
+                        JSONObject obj = checksumsJson.getJSONObject(i);
+                        CacheEntry entry = new CacheEntry(obj.getLong("size"), obj.getLong("last_modified"),
+                                                          obj.getString("file_key"), obj.getString("checksum"));
+
+                        entries.put(obj.getString("path"), entry);
+                    }
+                }
+            }
+        } catch (IOException | JSONException ex) {
+
+        }
+    }
+
+    /**
+     * Saves the checksum cache to the checksum cache file, least recently
+     * used entries first
+     * @throws FileNotFoundException if the cache file could not be written
+     */
+    public static void saveCache() throws FileNotFoundException {
+        JSONObject json = new JSONObject();
+        JSONArray checksumsJson = new JSONArray();
+
+        synchronized (entries) {
+            for (Map.Entry<String, CacheEntry> mapEntry : entries.entrySet()) {
+                CacheEntry entry = mapEntry.getValue();
+                JSONObject obj = new JSONObject();
+
+                obj.put("path", mapEntry.getKey());
+                obj.put("size", entry.size);
+                obj.put("last_modified", entry.lastModified);
+                obj.put("file_key", entry.fileKey);
+                obj.put("checksum", entry.checksum);
+
+                checksumsJson.put(obj);
+            }
+        }
+
+        json.put("checksums", checksumsJson);
+
+        try (PrintWriter writer = new PrintWriter(new FileOutputStream(new File(Configuration.CHECKSUM_CACHE_FILE)))) {
+            writer.write(json.toString());
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import org.codespeak.cmtt.Configuration;
+import org.json.JSONObject;
+
+/**
+ * A handler that loads and saves the program data in data.json. It does not
+ * depend on JavaFX, so the headless runner can use it as well
+ *
+ * @author Vector
+ */
+public class DataHandler {
+
+    /**
+     * Loads data from data.json
+     */
+    public static void loadData() {
+        File dataFile = new File(Configuration.DATA_FILE);
+        
+        if (dataFile.exists()) {
+            try {
+                byte[] bytes = Files.readAllBytes(dataFile.toPath());
+                String jsonString = new String(bytes);
+                JSONObject json = new JSONObject(jsonString);
+                
+                JVMFlagsProfileHandler.loadProfilesFromJSON(json);
+                ServerProfileHandler.loadProfilesFromJSON(json);
+                JavaProfileHandler.loadProfilesFromJson(json);
+                DevelopmentProfileHandler.loadProfilesFromJSON(json);
+                MappedDataHandler.loadFromJSON(json);
+            } catch (IOException ex) {
+                
+            }
+        }
+        
+        ChecksumCacheHandler.loadCache();
+    }
+
+    /**
+     * Saves data to data.json
+     * @throws FileNotFoundException if data.json could not be written
+     */
+    public static void saveData() throws FileNotFoundException {
+        JSONObject json = new JSONObject();
+        
+        JVMFlagsProfileHandler.saveProfilesToJSON(json);
+        ServerProfileHandler.saveProfilesToJSON(json);
+        JavaProfileHandler.saveProfilesToJson(json);
+        DevelopmentProfileHandler.saveProfilesToJSON(json);
+        MappedDataHandler.saveToJSON(json);
+        
+        PrintWriter writer = new PrintWriter(new FileOutputStream(new File(Configuration.DATA_FILE)));
+        writer.write(json.toString(4));
+        writer.close();
+        
+        ChecksumCacheHandler.saveCache();
+    }
+    
+}
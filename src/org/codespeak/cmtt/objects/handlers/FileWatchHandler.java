@@ -0,0 +1,193 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.codespeak.cmtt.objects.FileChangeListener;
+
+/**
+ * A handler that watches the folders of source jarfiles for changes. Each
+ * watched file has a version that changes whenever the file is created,
+ * modified or deleted. Some platforms only poll for changes every few
+ * seconds, so a version change is a hint to rehash a file rather than proof
+ * that it is unchanged
+ *
+ * @author Vector
+ */
+public class FileWatchHandler {
+
+    /**
+     * Version returned for files whose changes are not being tracked
+     */
+    public static final long UNTRACKED = -1;
+
+    private static final AtomicLong versionCounter = new AtomicLong();
+    private static final Map<Path, WatchKey> watchedFolders = new ConcurrentHashMap<Path, WatchKey>();
+    private static final Map<Path, Long> folderVersions = new ConcurrentHashMap<Path, Long>();
+    private static final Map<Path, Long> fileVersions = new ConcurrentHashMap<Path, Long>();
+    private static final Set<Path> trackedFiles = ConcurrentHashMap.newKeySet();
+    private static final List<FileChangeListener> listeners = new CopyOnWriteArrayList<FileChangeListener>();
+    private static volatile WatchService watchService = null;
+    private static Thread watchThread = null;
+
+    private static void processEvents(WatchService service) {
+        while (true) {
+            WatchKey key = null;
+
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+
+            Path folder = (Path) key.watchable();
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    folderVersions.put(folder, versionCounter.incrementAndGet());
+                } else {
+                    Path file = folder.resolve((Path) event.context());
+
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        fileVersions.remove(file);
+                    } else if (trackedFiles.contains(file)) {
+                        fileVersions.put(file, versionCounter.incrementAndGet());
+                    }
+
+                    for (FileChangeListener listener : listeners) {
+                        listener.fileChanged(file);
+                    }
+                }
+            }
+
+            if (!key.reset()) {
+                watchedFolders.remove(folder);
+                folderVersions.put(folder, versionCounter.incrementAndGet());
+            }
+        }
+    }
+
+    private static boolean watchFolder(Path folder) {
+        if (watchedFolders.containsKey(folder)) {
+            return true;
+        }
+
+        synchronized (FileWatchHandler.class) {
+            if (watchedFolders.containsKey(folder)) {
+                return true;
+            }
+
+            if (watchService == null) {
+                return false;
+            }
+
+            try {
+                WatchKey key = folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                               StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+                folderVersions.put(folder, versionCounter.incrementAndGet());
+                watchedFolders.put(folder, key);
+            } catch (IOException | ClosedWatchServiceException ex) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Starts watching for file changes
+     */
+    public static synchronized void start() {
+        if (watchService != null) {
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException ex) {
+            return;
+        }
+
+        WatchService service = watchService;
+
+        watchThread = new Thread(() -> processEvents(service), "File Watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stops watching for file changes
+     */
+    public static synchronized void stop() {
+        if (watchService == null) {
+            return;
+        }
+
+        try {
+            watchService.close();
+        } catch (IOException ex) {
+
+        }
+
+        watchService = null;
+        watchedFolders.clear();
+    }
+
+    /**
+     * Adds a listener that is notified of changes to files in watched folders
+     * @param listener listener to add
+     */
+    public static void addListener(FileChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     * @param listener listener to remove
+     */
+    public static void removeListener(FileChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the current version of the specified file. The file is tracked
+     * and the folder containing it is watched from the first time this is
+     * called, so the version must be read before the file is checked. Other
+     * files in the folder only notify listeners
+     * @param path path to file
+     * @return current version of the file, or {@link #UNTRACKED} if changes to
+     * the file are not being tracked
+     */
+    public static long getVersion(Path path) {
+        if (watchService == null || path == null) {
+            return UNTRACKED;
+        }
+
+        Path file = path.toAbsolutePath().normalize();
+        Path folder = file.getParent();
+
+        if (folder == null || !watchFolder(folder)) {
+            return UNTRACKED;
+        }
+
+        trackedFiles.add(file);
+
+        long folderVersion = folderVersions.getOrDefault(folder, UNTRACKED);
+        long fileVersion = fileVersions.getOrDefault(file, UNTRACKED);
+
+        return Math.max(folderVersion, fileVersion);
+    }
+
+}
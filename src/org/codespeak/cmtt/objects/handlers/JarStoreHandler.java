@@ -0,0 +1,225 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashSet;
+import java.util.Set;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.util.ChecksumUtil;
+
+/**
+ * A handler for a content-addressed store of jarfiles. Each jarfile is stored
+ * once under its checksum, and profile folders receive hard links to the
+ * stored copy instead of their own copies. Stored jarfiles are read-only, so
+ * a server writing to its jarfile in place can't change the copy shared by
+ * every profile. Unused jarfiles are found by their link count. On file
+ * systems without link counts or POSIX permissions, such as on Windows, the
+ * store is not used at all and jarfiles are copied straight to the profile
+ *
+ * @author Vector
+ */
+public class JarStoreHandler {
+
+    private static final Set<PosixFilePermission> STORED_PERMISSIONS = PosixFilePermissions.fromString("r--r--r--");
+    private static final Set<String> usedChecksums = new HashSet<String>();
+    private static Boolean linksSupported = null;
+
+    private static Path getStorePath() {
+        return Paths.get(Configuration.STORE_FOLDER);
+    }
+
+    private static synchronized boolean isLinksSupported() {
+        if (linksSupported == null) {
+            try {
+                Path storePath = getStorePath();
+
+                Files.createDirectories(storePath);
+
+                linksSupported = Files.getFileStore(storePath).supportsFileAttributeView("unix");
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+
+        return linksSupported;
+    }
+
+    private static void markUsed(String checksum) {
+        synchronized (usedChecksums) {
+            usedChecksums.add(checksum);
+        }
+    }
+
+    /**
+     * Gets the path of the stored jarfile with the specified checksum
+     * @param checksum checksum of the jarfile
+     * @return path of the stored jarfile
+     */
+    public static Path getStoredPath(String checksum) {
+        return getStorePath().resolve(checksum.substring(0, 2)).resolve(checksum + ".jar");
+    }
+
+    private static String store(Path source) throws IOException {
+        String checksum = ChecksumCacheHandler.getChecksum(source);
+        Path storePath = getStorePath();
+
+        Files.createDirectories(storePath);
+
+        if (!checksum.isEmpty()) {
+            markUsed(checksum);
+
+            Path storedPath = getStoredPath(checksum);
+
+            if (Files.exists(storedPath)) {
+                Files.setPosixFilePermissions(storedPath, STORED_PERMISSIONS);
+
+                return checksum;
+            }
+        }
+
+        Path tempPath = Files.createTempFile(storePath, "store", ".tmp");
+
+        try {
+            checksum = ChecksumUtil.copy(source, tempPath);
+            markUsed(checksum);
+
+            Path storedPath = getStoredPath(checksum);
+
+            Files.setPosixFilePermissions(tempPath, STORED_PERMISSIONS);
+            Files.createDirectories(storedPath.getParent());
+
+            try {
+                Files.move(tempPath, storedPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ex) {
+
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+
+        return checksum;
+    }
+
+    private static void link(String checksum, Path target) throws IOException {
+        Path storedPath = getStoredPath(checksum);
+        Path tempPath = target.resolveSibling(target.getFileName() + ".tmp");
+
+        Files.deleteIfExists(tempPath);
+
+        try {
+            try {
+                Files.createLink(tempPath, storedPath);
+            } catch (UnsupportedOperationException | IOException ex) {
+                Files.copy(storedPath, tempPath, StandardCopyOption.REPLACE_EXISTING);
+                tempPath.toFile().setWritable(true, true);
+            }
+
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private static String copy(Path source, Path target) throws IOException {
+        Path tempPath = target.resolveSibling(target.getFileName() + ".tmp");
+
+        Files.deleteIfExists(tempPath);
+
+        try {
+            String checksum = ChecksumUtil.copy(source, tempPath);
+
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            return checksum;
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Places the specified jarfile at the target path. The jarfile is added
+     * to the store and the target receives a read-only hard link to it where
+     * possible, otherwise the jarfile is copied and left writable. The target
+     * is replaced atomically
+     * @param source path to the jarfile to place
+     * @param target path to place the jarfile at
+     * @return checksum of the placed jarfile
+     * @throws IOException if the jarfile could not be placed
+     */
+    public static String place(Path source, Path target) throws IOException {
+        if (!isLinksSupported()) {
+            return copy(source, target);
+        }
+
+        String checksum = store(source);
+
+        link(checksum, target);
+
+        return checksum;
+    }
+
+    private static boolean isUnused(Path storedFile) throws IOException {
+        if (!isLinksSupported()) {
+            return true;
+        }
+
+        int links = (Integer) Files.getAttribute(storedFile, "unix:nlink");
+
+        return links <= 1;
+    }
+
+    /**
+     * Removes stored jarfiles that are no longer linked from any profile,
+     * skipping those stored or placed since the program started. Where the
+     * store is not used, anything left in it is removed
+     */
+    public static void purgeUnused() {
+        Path storePath = getStorePath();
+
+        if (!Files.isDirectory(storePath)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(storePath)) {
+            for (Path prefix : prefixes) {
+                if (!Files.isDirectory(prefix)) {
+                    continue;
+                }
+
+                try (DirectoryStream<Path> storedFiles = Files.newDirectoryStream(prefix, "*.jar")) {
+                    for (Path storedFile : storedFiles) {
+                        String fileName = storedFile.getFileName().toString();
+                        String checksum = fileName.substring(0, fileName.length() - ".jar".length());
+
+                        synchronized (usedChecksums) {
+                            if (!usedChecksums.contains(checksum) && isUnused(storedFile)) {
+                                Files.deleteIfExists(storedFile);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException ex) {
+
+        }
+    }
+
+    /**
+     * Removes unused stored jarfiles on a low priority background thread
+     */
+    public static void startPurge() {
+        Thread purgeThread = new Thread(JarStoreHandler::purgeUnused, "Jar Store Purge");
+
+        purgeThread.setDaemon(true);
+        purgeThread.setPriority(Thread.MIN_PRIORITY);
+        purgeThread.start();
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.objects.LaunchRecord;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A handler for the launch history file. Each launch is appended to the file
+ * as a single line of JSON, and how long the server took to stop is appended
+ * as a separate line once it has stopped
+ *
+ * @author Vector
+ */
+public class LaunchHistoryHandler {
+
+    /**
+     * Appends a launch record to the launch history file
+     * @param record launch record to append
+     */
+    public static synchronized void addRecord(LaunchRecord record) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(Configuration.LAUNCH_HISTORY_FILE, true))) {
+            writer.println(record.toJSON().toString());
+        } catch (IOException ex) {
+
+        }
+    }
+
+    /**
+     * Appends the shutdown time of a launch to the launch history file
+     * @param record launch record with its shutdown time set
+     */
+    public static synchronized void addShutdown(LaunchRecord record) {
+        JSONObject json = new JSONObject();
+
+        json.put("shutdown_of", record.getTime());
+        json.put("development_profile", record.getDevelopmentProfileId());
+        json.put("shutdown_time", record.getShutdownTime());
+        json.put("forced_shutdown", record.isForcedShutdown());
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(Configuration.LAUNCH_HISTORY_FILE, true))) {
+            writer.println(json.toString());
+        } catch (IOException ex) {
+
+        }
+    }
+
+    /**
+     * Gets all launch records of the specified development profile, oldest
+     * first
+     * @param developmentProfileId ID of the development profile
+     * @return launch records of the development profile
+     */
+    public static synchronized List<LaunchRecord> getRecords(int developmentProfileId) {
+        List<LaunchRecord> records = new ArrayList<LaunchRecord>();
+        Map<Long, LaunchRecord> recordsByTime = new HashMap<Long, LaunchRecord>();
+        File historyFile = new File(Configuration.LAUNCH_HISTORY_FILE);
+
+        if (!historyFile.exists()) {
+            return records;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
+            String line = null;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    JSONObject json = new JSONObject(line);
+
+                    if (json.optInt("development_profile") != developmentProfileId) {
+                        continue;
+                    }
+
+                    if (json.has("shutdown_of")) {
+                        LaunchRecord record = recordsByTime.get(json.getLong("shutdown_of"));
+
+                        if (record != null) {
+                            record.setShutdown(json.getLong("shutdown_time"), json.optBoolean("forced_shutdown"));
+                        }
+
+                        continue;
+                    }
+
+                    LaunchRecord record = LaunchRecord.fromJSON(json);
+
+                    records.add(record);
+                    recordsByTime.put(record.getTime(), record);
+                } catch (JSONException ex) {
+
+                }
+            }
+        } catch (IOException ex) {
+
+        }
+
+        return records;
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.Set;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.Settings;
+import org.codespeak.cmtt.Settings.SettingFields;
+
+/**
+ * A handler that hands out free ports from the configured server port range
+ * so several servers can run side by side. Ports are handed out in turn, so
+ * a port that was just released isn't reused right away
+ *
+ * @author Vector
+ */
+public class PortHandler {
+
+    private static final Set<Integer> allocatedPorts = new HashSet<Integer>();
+    private static int lastPort = -1;
+
+    private static boolean isFree(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(port));
+
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Allocates a free port from the configured server port range
+     * @return allocated port, or -1 if no port in the range is free
+     */
+    public static synchronized int allocate() {
+        Settings settings = Configuration.getSettings();
+        int start = settings.getSetting(SettingFields.SERVER_PORT_RANGE_START);
+        int end = settings.getSetting(SettingFields.SERVER_PORT_RANGE_END);
+        int count = end - start + 1;
+
+        if (lastPort < start || lastPort > end) {
+            lastPort = end;
+        }
+
+        for (int i = 1; i <= count; i++) {
+            int port = start + Math.floorMod(lastPort - start + i, count);
+
+            if (!allocatedPorts.contains(port) && isFree(port)) {
+                allocatedPorts.add(port);
+                lastPort = port;
+
+                return port;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Releases a port so it can be allocated again
+     * @param port port to release
+     */
+    public static synchronized void release(int port) {
+        allocatedPorts.remove(port);
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.objects.ResourceUsage;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A handler for the resource history file. The peak resource usage of each
+ * launch is appended to the file as a single line of JSON once the server
+ * has stopped
+ *
+ * @author Vector
+ */
+public class ResourceHistoryHandler {
+
+    /**
+     * Appends the resource usage of a launch to the resource history file
+     * @param usage resource usage to append
+     */
+    public static synchronized void addUsage(ResourceUsage usage) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(Configuration.RESOURCE_HISTORY_FILE, true))) {
+            writer.println(usage.toJSON().toString());
+        } catch (IOException ex) {
+
+        }
+    }
+
+    /**
+     * Gets the resource usage of all launches of the specified development
+     * profile, oldest first
+     * @param developmentProfileId ID of the development profile
+     * @return resource usage of the launches of the development profile
+     */
+    public static synchronized List<ResourceUsage> getUsages(int developmentProfileId) {
+        List<ResourceUsage> usages = new ArrayList<ResourceUsage>();
+        File historyFile = new File(Configuration.RESOURCE_HISTORY_FILE);
+
+        if (!historyFile.exists()) {
+            return usages;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
+            String line = null;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    ResourceUsage usage = ResourceUsage.fromJSON(new JSONObject(line));
+
+                    if (usage.getDevelopmentProfileId() == developmentProfileId) {
+                        usages.add(usage);
+                    }
+                } catch (JSONException ex) {
+
+                }
+            }
+        } catch (IOException ex) {
+
+        }
+
+        return usages;
+    }
+
+}
@@ -0,0 +1,177 @@
+package org.codespeak.cmtt.objects.handlers;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.objects.RecursiveDeleter;
+import org.codespeak.cmtt.objects.TaskContext;
+
+/**
+ * A handler that removes folders by renaming them into a trash folder next
+ * to the profiles, which is instant as long as both are on the same file
+ * system. A low priority reclaimer thread then deletes whatever is in the
+ * trash one file at a time in the background, so it doesn't compete with
+ * deletes the user is waiting on, and drains what was left in it when the
+ * program last exited
+ *
+ * @author Vector
+ */
+public class TrashHandler {
+
+    private static final AtomicLong entryCounter = new AtomicLong();
+    private static final Object lock = new Object();
+    private static Thread reclaimerThread = null;
+    private static volatile boolean stopping = false;
+    private static boolean pending = false;
+
+    private static final TaskContext reclaimerContext = new TaskContext() {
+        @Override
+        public void updateProgress(long workDone, long totalWork) {
+
+        }
+
+        @Override
+        public void updateMessage(String message) {
+
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return stopping;
+        }
+    };
+
+    /**
+     * Gets the path of the trash folder
+     * @return path of the trash folder
+     */
+    public static Path getTrashPath() {
+        return Paths.get(Configuration.TRASH_FOLDER).toAbsolutePath();
+    }
+
+    /**
+     * Moves a file or folder into the trash, to be deleted in the background
+     * @param path path to move into the trash
+     * @return if the path is gone from its location, or false if it could
+     * not be moved, such as when it is on a different file system than the
+     * trash
+     */
+    public static boolean moveToTrash(Path path) {
+        if (!Files.exists(path)) {
+            return true;
+        }
+
+        Path trashPath = getTrashPath();
+        String entryName = System.currentTimeMillis() + "-" + entryCounter.incrementAndGet() + "-" + path.getFileName();
+
+        try {
+            Files.createDirectories(trashPath);
+            Files.move(path, trashPath.resolve(entryName), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            return false;
+        }
+
+        reclaim();
+
+        return true;
+    }
+
+    private static List<Path> getEntries() {
+        List<Path> entries = new ArrayList<Path>();
+        Path trashPath = getTrashPath();
+
+        if (!Files.isDirectory(trashPath)) {
+            return entries;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(trashPath)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+            }
+        } catch (IOException ex) {
+
+        }
+
+        return entries;
+    }
+
+    private static void runReclaimer() {
+        while (!stopping) {
+            synchronized (lock) {
+                while (!pending && !stopping) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+
+                pending = false;
+            }
+
+            for (Path entry : getEntries()) {
+                if (stopping) {
+                    return;
+                }
+
+                RecursiveDeleter deleter = new RecursiveDeleter(entry, reclaimerContext);
+
+                deleter.deleteSequentially();
+            }
+        }
+    }
+
+    /**
+     * Wakes the reclaimer so it deletes everything in the trash
+     */
+    public static void reclaim() {
+        synchronized (lock) {
+            pending = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Starts the reclaimer and has it drain anything left in the trash
+     */
+    public static synchronized void start() {
+        if (reclaimerThread != null) {
+            return;
+        }
+
+        stopping = false;
+
+        reclaimerThread = new Thread(TrashHandler::runReclaimer, "Trash Reclaimer");
+        reclaimerThread.setDaemon(true);
+        reclaimerThread.setPriority(Thread.MIN_PRIORITY);
+        reclaimerThread.start();
+
+        reclaim();
+    }
+
+    /**
+     * Stops the reclaimer. Anything still in the trash is deleted the next
+     * time the reclaimer starts
+     */
+    public static synchronized void stop() {
+        if (reclaimerThread == null) {
+            return;
+        }
+
+        stopping = true;
+
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+
+        reclaimerThread = null;
+    }
+
+}
@@ -2,16 +2,16 @@ package org.codespeak.cmtt.profiles;
 
 import org.codespeak.cmtt.objects.Plugin;
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import org.codespeak.cmtt.Configuration;
+import org.codespeak.cmtt.objects.DeleteResult;
+import org.codespeak.cmtt.objects.TaskContext;
 import org.codespeak.cmtt.objects.handlers.JavaProfileHandler;
 import org.codespeak.cmtt.objects.handlers.ServerProfileHandler;
+import org.codespeak.cmtt.util.FileUtil;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -309,18 +309,20 @@ public class DevelopmentProfile extends Profile {
      * Removes this profile and all files associated with it
      */
     public void remove() {
-        Path profileLocation = getLocation();
-        
-        if (profileLocation.toFile().exists()) {
-            try {
-                Files.walk(profileLocation)
-                     .sorted(Comparator.reverseOrder())
-                     .map(Path::toFile)
-                     .forEach(File::delete);
-            } catch (IOException ex) {
-                
-            }
-        }
+        remove(null);
+    }
+    
+    /**
+     * Removes this profile and all files associated with it. The files are
+     * moved into the trash and deleted in the background when possible, and
+     * deleted in place otherwise
+     * @param context context to report progress to and check for
+     * cancellation while deleting in place, or null
+     * @return result of deleting the files, including files that could not
+     * be deleted
+     */
+    public DeleteResult remove(TaskContext context) {
+        return FileUtil.discard(getLocation(), context);
     }
     
     /**
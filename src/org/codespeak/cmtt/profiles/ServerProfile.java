@@ -5,10 +5,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.Comparator;
 import org.codespeak.cmtt.Configuration;
 import org.codespeak.cmtt.objects.ServerTypes;
+import org.codespeak.cmtt.objects.DeleteResult;
+import org.codespeak.cmtt.objects.TaskContext;
+import org.codespeak.cmtt.objects.handlers.ChecksumCacheHandler;
+import org.codespeak.cmtt.objects.handlers.FileWatchHandler;
+import org.codespeak.cmtt.objects.handlers.JarStoreHandler;
+import org.codespeak.cmtt.util.FileUtil;
 import org.codespeak.cmtt.util.MiscUtil;
 import org.json.JSONObject;
 
@@ -27,6 +31,7 @@ public class ServerProfile extends Profile {
     private String customWorldsFolderArgument;
     private Path serverPath;
     private String checksum;
+    private long checkedVersion = FileWatchHandler.UNTRACKED;
     
     public ServerProfile(String name, ServerTypes serverType, String customPluginsFolderArgument,
                          String customWorldNameArgument, String customWorldsFolderArgument,
@@ -163,6 +168,7 @@ public class ServerProfile extends Profile {
      */
     public void setServerPath(Path serverPath) {
         this.serverPath = serverPath;
+        this.checkedVersion = FileWatchHandler.UNTRACKED;
     }
     
     /**
@@ -179,6 +185,7 @@ public class ServerProfile extends Profile {
      */
     public void setChecksum(String checksum) {
         this.checksum = checksum;
+        this.checkedVersion = FileWatchHandler.UNTRACKED;
     }
     
     /**
@@ -239,7 +246,15 @@ public class ServerProfile extends Profile {
      * @return if this server has an update 
      */
     public boolean hasUpdate() {
-        String checkChecksum = MiscUtil.getChecksum(serverPath);
+        long version = FileWatchHandler.getVersion(serverPath);
+        
+        if (checkedVersion != FileWatchHandler.UNTRACKED && version != checkedVersion) {
+            ChecksumCacheHandler.invalidate(serverPath);
+        }
+        
+        String checkChecksum = ChecksumCacheHandler.getChecksum(serverPath);
+        
+        checkedVersion = version;
         
         return !checkChecksum.equals(checksum);
     }
@@ -256,9 +271,9 @@ public class ServerProfile extends Profile {
         }
         
         try {
-            Files.copy(serverPath, profileServerPath, StandardCopyOption.REPLACE_EXISTING);
-            
-            checksum = MiscUtil.getChecksum(serverPath);
+            long version = FileWatchHandler.getVersion(serverPath);
+            checksum = JarStoreHandler.place(serverPath, profileServerPath);
+            checkedVersion = version;
 
             if (serverType != ServerTypes.GLOWSTONE) {
                 Path profileEulaPath = getProfileEULAPath();
@@ -279,20 +294,22 @@ public class ServerProfile extends Profile {
      * Removes this profile and all files associated with it
      */
     public void remove() {
-        Path profilePath = getProfilePath();
-
-        if (profilePath.toFile().exists()) {
-            try {
-                Files.walk(profilePath)
-                     .sorted(Comparator.reverseOrder())
-                     .map(Path::toFile)
-                     .forEach(File::delete);
-            } catch (IOException ex) {
-
-            }            
-        }
+        remove(null);
     }
-
+    
+    /**
+     * Removes this profile and all files associated with it. The files are
+     * moved into the trash and deleted in the background when possible, and
+     * deleted in place otherwise
+     * @param context context to report progress to and check for
+     * cancellation while deleting in place, or null
+     * @return result of deleting the files, including files that could not
+     * be deleted
+     */
+    public DeleteResult remove(TaskContext context) {
+        return FileUtil.discard(getProfilePath(), context);
+    }
+    
     /**
      * Converts this object to JSON
      * @return JSON representation of this object
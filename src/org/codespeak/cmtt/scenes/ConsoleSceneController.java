@@ -0,0 +1,126 @@
+package org.codespeak.cmtt.scenes;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.function.Consumer;
+import javafx.animation.AnimationTimer;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+import org.codespeak.cmtt.objects.ConsoleBuffer;
+import org.codespeak.cmtt.util.StringUtil;
+
+/**
+ * Controller for the console scene. New lines are taken from the console
+ * buffer once per animation frame, so a busy server can't flood the UI
+ *
+ * @author Vector
+ */
+public class ConsoleSceneController implements Initializable {
+
+    private Stage controllerStage = null;
+    private ConsoleBuffer consoleBuffer = null;
+    private Consumer<String> commandSender = null;
+    private long nextLine = 0;
+    private final List<String> newLines = new ArrayList<String>();
+    
+    @FXML private ListView<String> consoleList;
+    @FXML private TextField commandField;
+    @FXML private CheckBox autoScrollCheck;
+    
+    private final AnimationTimer refreshTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            refresh();
+        }
+    };
+    
+    private void refresh() {
+        if (consoleBuffer == null || consoleBuffer.getLineCount() == nextLine) {
+            return;
+        }
+        
+        ObservableList<String> items = consoleList.getItems();
+        
+        nextLine = consoleBuffer.copyLinesSince(nextLine, newLines);
+        
+        int capacity = consoleBuffer.getCapacity();
+        int overflow = items.size() + newLines.size() - capacity;
+        
+        if (overflow >= items.size()) {
+            items.setAll(newLines);
+        } else {
+            if (overflow > 0) {
+                items.remove(0, overflow);
+            }
+            
+            items.addAll(newLines);
+        }
+        
+        newLines.clear();
+        
+        if (autoScrollCheck.isSelected() && !items.isEmpty()) {
+            consoleList.scrollTo(items.size() - 1);
+        }
+    }
+    
+    /**
+     * Initializes the controller class.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle rb) {
+
+    }
+    
+    /**
+     * Sets the stage representing this scene controller
+     * @param controllerStage stage representing this scene controller
+     */
+    public void setControllerStage(Stage controllerStage) {
+        this.controllerStage = controllerStage;
+        
+        this.controllerStage.setOnHidden((WindowEvent windowEvent) -> {
+            refreshTimer.stop();
+        });
+    }
+    
+    /**
+     * Shows the output held by the specified console buffer
+     * @param consoleBuffer console buffer to show
+     * @param commandSender receives commands entered in this console
+     */
+    public void setConsole(ConsoleBuffer consoleBuffer, Consumer<String> commandSender) {
+        this.consoleBuffer = consoleBuffer;
+        this.commandSender = commandSender;
+        this.nextLine = 0;
+        
+        consoleList.getItems().clear();
+        refreshTimer.start();
+    }
+    
+    @FXML
+    public void onSendButtonClick(ActionEvent event) {
+        String command = commandField.getText();
+        
+        if (StringUtil.isNullOrEmpty(command) || commandSender == null) {
+            return;
+        }
+        
+        commandSender.accept(command);
+        commandField.clear();
+    }
+    
+    @FXML
+    public void onCloseButtonClick(ActionEvent event) {
+        controllerStage.close();
+    }
+    
+}
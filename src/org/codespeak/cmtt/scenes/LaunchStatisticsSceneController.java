@@ -0,0 +1,225 @@
+package org.codespeak.cmtt.scenes;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.stage.Stage;
+import org.codespeak.cmtt.objects.LaunchPhase;
+import org.codespeak.cmtt.objects.LaunchRecord;
+import org.codespeak.cmtt.objects.ResourceUsage;
+import org.codespeak.cmtt.objects.handlers.LaunchHistoryHandler;
+import org.codespeak.cmtt.objects.handlers.ResourceHistoryHandler;
+import org.codespeak.cmtt.objects.handlers.ServerProfileHandler;
+import org.codespeak.cmtt.profiles.DevelopmentProfile;
+import org.codespeak.cmtt.profiles.ServerProfile;
+import org.codespeak.cmtt.util.StatisticsUtil;
+
+/**
+ * Controller for the launch statistics scene
+ *
+ * @author Vector
+ */
+public class LaunchStatisticsSceneController implements Initializable {
+
+    private static final String ALL_SERVERS = "All servers";
+    
+    private Stage controllerStage = null;
+    private List<LaunchRecord> records = new ArrayList<LaunchRecord>();
+    private List<ResourceUsage> usages = new ArrayList<ResourceUsage>();
+    
+    @FXML private Label headerLabel;
+    @FXML private ComboBox<String> serverProfileChoice;
+    @FXML private Label launchCountLabel;
+    @FXML private TableView<String[]> statisticsTable;
+    @FXML private TableColumn<String[], String> phaseColumn;
+    @FXML private TableColumn<String[], String> medianColumn;
+    @FXML private TableColumn<String[], String> ninetiethColumn;
+    @FXML private TableColumn<String[], String> ninetyNinthColumn;
+    @FXML private TableColumn<String[], String> maxColumn;
+    @FXML private Label resourceLabel;
+    
+    private void setColumnIndex(TableColumn<String[], String> column, int index) {
+        column.setCellValueFactory((TableColumn.CellDataFeatures<String[], String> data) -> new SimpleStringProperty(data.getValue()[index]));
+    }
+    
+    private String formatSeconds(double millis) {
+        return String.format("%.2fs", millis / 1000);
+    }
+    
+    private String[] getRow(String name, double[] values) {
+        if (values.length == 0) {
+            return new String[] {name, "-", "-", "-", "-"};
+        }
+        
+        return new String[] {name,
+                             formatSeconds(StatisticsUtil.percentile(values, 50)),
+                             formatSeconds(StatisticsUtil.percentile(values, 90)),
+                             formatSeconds(StatisticsUtil.percentile(values, 99)),
+                             formatSeconds(StatisticsUtil.percentile(values, 100))};
+    }
+    
+    private void showStatistics(ServerProfile serverProfile) {
+        List<LaunchRecord> filteredRecords = new ArrayList<LaunchRecord>();
+        
+        for (LaunchRecord record : records) {
+            if (serverProfile == null || record.getServerProfileId() == serverProfile.getId()) {
+                filteredRecords.add(record);
+            }
+        }
+        
+        ObservableList<String[]> items = statisticsTable.getItems();
+        int count = filteredRecords.size();
+        
+        items.clear();
+        
+        for (LaunchPhase phase : LaunchPhase.values()) {
+            List<Double> phaseTimes = new ArrayList<Double>();
+            
+            for (LaunchRecord record : filteredRecords) {
+                long phaseTime = record.getPhaseTime(phase);
+                
+                if (phaseTime >= 0) {
+                    phaseTimes.add((double) phaseTime);
+                }
+            }
+            
+            items.add(getRow(phase.getName(), toArray(phaseTimes)));
+        }
+        
+        double[] totalTimes = new double[count];
+        List<Double> reportedTimes = new ArrayList<Double>();
+        List<Double> shutdownTimes = new ArrayList<Double>();
+        
+        for (int i = 0; i < count; i++) {
+            LaunchRecord record = filteredRecords.get(i);
+            
+            totalTimes[i] = record.getTotalTime();
+            
+            if (record.getReportedStartTime() >= 0) {
+                reportedTimes.add(record.getReportedStartTime() * 1000);
+            }
+            
+            if (record.getShutdownTime() >= 0) {
+                shutdownTimes.add((double) record.getShutdownTime());
+            }
+        }
+        
+        items.add(getRow("Total", totalTimes));
+        items.add(getRow("Reported \"Done\"", toArray(reportedTimes)));
+        items.add(getRow("Shutdown", toArray(shutdownTimes)));
+        
+        launchCountLabel.setText(count + " launch" + (count != 1 ? "es" : "") + " recorded");
+        
+        showResourceUsage(serverProfile);
+    }
+    
+    private void showResourceUsage(ServerProfile serverProfile) {
+        List<Double> residentMemory = new ArrayList<Double>();
+        int peakThreads = 0;
+        int peakFileDescriptors = 0;
+        String upperMemory = "";
+        
+        for (ResourceUsage usage : usages) {
+            if (serverProfile == null || usage.getServerProfileId() == serverProfile.getId()) {
+                residentMemory.add((double) usage.getPeakResidentMemory());
+                peakThreads = Math.max(peakThreads, usage.getPeakThreads());
+                peakFileDescriptors = Math.max(peakFileDescriptors, usage.getPeakFileDescriptors());
+                upperMemory = usage.getUpperMemory();
+            }
+        }
+        
+        if (residentMemory.isEmpty()) {
+            resourceLabel.setText("No resource usage recorded");
+            
+            return;
+        }
+        
+        double[] values = toArray(residentMemory);
+        double megabyte = 1024 * 1024;
+        
+        resourceLabel.setText(String.format("Peak memory: %.0f MB median, %.0f MB max%s\nPeak threads: %d, peak open files: %d",
+                                            StatisticsUtil.percentile(values, 50) / megabyte,
+                                            StatisticsUtil.percentile(values, 100) / megabyte,
+                                            (!upperMemory.isEmpty() ? " (last launched with -Xmx" + upperMemory + ")" : ""),
+                                            peakThreads, peakFileDescriptors));
+    }
+    
+    private double[] toArray(List<Double> values) {
+        double[] ret = new double[values.size()];
+        
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = values.get(i);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Initializes the controller class.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle rb) {
+        setColumnIndex(phaseColumn, 0);
+        setColumnIndex(medianColumn, 1);
+        setColumnIndex(ninetiethColumn, 2);
+        setColumnIndex(ninetyNinthColumn, 3);
+        setColumnIndex(maxColumn, 4);
+        
+        ObservableList<String> serverProfileItems = serverProfileChoice.getItems();
+        
+        serverProfileItems.add(ALL_SERVERS);
+        
+        for (ServerProfile profile : ServerProfileHandler.getProfiles()) {
+            serverProfileItems.add(profile.getName());
+        }
+    }
+    
+    /**
+     * Sets the stage representing this scene controller
+     * @param controllerStage stage representing this scene controller
+     */
+    public void setControllerStage(Stage controllerStage) {
+        this.controllerStage = controllerStage;
+    }
+    
+    /**
+     * Shows the launch statistics of the specified development profile
+     * @param profile development profile
+     */
+    public void showProfile(DevelopmentProfile profile) {
+        headerLabel.setText("Launch Statistics: " + profile.getName());
+        records = LaunchHistoryHandler.getRecords(profile.getId());
+        usages = ResourceHistoryHandler.getUsages(profile.getId());
+        
+        serverProfileChoice.getSelectionModel().select(ALL_SERVERS);
+        showStatistics(null);
+    }
+    
+    @FXML
+    public void onSelectServerProfile() {
+        String profileName = serverProfileChoice.getSelectionModel().getSelectedItem();
+        ServerProfile profile = null;
+        
+        if (profileName != null && !profileName.equals(ALL_SERVERS)) {
+            profile = ServerProfileHandler.getProfile(profileName);
+        }
+        
+        showStatistics(profile);
+    }
+    
+    @FXML
+    public void onCloseButtonClick(ActionEvent event) {
+        controllerStage.close();
+    }
+    
+}
@@ -21,6 +21,8 @@ import org.codespeak.cmtt.Configuration;
 import org.codespeak.cmtt.Main;
 import org.codespeak.cmtt.Settings;
 import org.codespeak.cmtt.Settings.SettingFields;
+import org.codespeak.cmtt.objects.BackgroundTask;
+import org.codespeak.cmtt.objects.DeleteResult;
 import org.codespeak.cmtt.objects.CheckVersionResponse;
 import org.codespeak.cmtt.objects.DevelopmentProfileProcessor;
 import org.codespeak.cmtt.objects.ProcessorContext;
@@ -355,8 +357,23 @@ public class MainSceneController implements Initializable, DevelopmentProfilePro
             String profileName = developmentProfileList.getItems().remove(selectedIndex);
             DevelopmentProfile profile = DevelopmentProfileHandler.getProfile(profileName);
 
-            profile.remove();
             DevelopmentProfileHandler.deleteProfile(profile.getId());
+            
+            SceneUtil.runTask(new BackgroundTask<DeleteResult>("Deleting " + profile.getName()) {
+                @Override
+                protected DeleteResult call() {
+                    return profile.remove(this);
+                }
+                
+                @Override
+                public void succeeded(DeleteResult result) {
+                    if (!result.getFailedPaths().isEmpty()) {
+                        Alert alert = AlertUtil.createAlert(Alert.AlertType.WARNING, result.getFailureMessage(),
+                                                            "The files of the profile could not be completely deleted.");
+                        alert.show();
+                    }
+                }
+            });
         }
     }
     
@@ -4,24 +4,35 @@ import java.awt.Desktop;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.Tooltip;
+import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
+import javafx.util.Duration;
 import org.codespeak.cmtt.Configuration;
 import org.codespeak.cmtt.Main;
 import org.codespeak.cmtt.Settings;
@@ -29,15 +40,30 @@ import org.codespeak.cmtt.Settings.SettingFields;
 import org.codespeak.cmtt.objects.ServerTypes;
 import org.codespeak.cmtt.objects.handlers.ServerProfileHandler;
 import org.codespeak.cmtt.profiles.DevelopmentProfile;
+import org.codespeak.cmtt.objects.BackgroundTask;
+import org.codespeak.cmtt.objects.DeleteResult;
+import org.codespeak.cmtt.objects.HotRedeployer;
+import org.codespeak.cmtt.objects.LaunchRecord;
+import org.codespeak.cmtt.objects.LaunchRegression;
 import org.codespeak.cmtt.objects.Plugin;
+import org.codespeak.cmtt.objects.PluginSynchronizer;
 import org.codespeak.cmtt.objects.ProgramException;
-import org.codespeak.cmtt.objects.ReadServerInformationThread;
-import org.codespeak.cmtt.objects.RunAfterProcessThread;
+import org.codespeak.cmtt.objects.ResourceUsage;
+import org.codespeak.cmtt.objects.ServerLauncher;
+import org.codespeak.cmtt.objects.ServerSession;
+import org.codespeak.cmtt.objects.ServerSessionManager;
+import org.codespeak.cmtt.objects.ServerStatus;
+import org.codespeak.cmtt.objects.StageController;
+import org.codespeak.cmtt.objects.TickMonitorThread;
 import org.codespeak.cmtt.objects.handlers.JavaProfileHandler;
+import org.codespeak.cmtt.objects.handlers.MappedDataHandler;
 import org.codespeak.cmtt.profiles.JavaProfile;
 import org.codespeak.cmtt.profiles.ServerProfile;
 import org.codespeak.cmtt.util.AlertUtil;
+import org.codespeak.cmtt.util.FileUtil;
+import org.codespeak.cmtt.util.SceneUtil;
 import org.codespeak.cmtt.util.StringUtil;
+import org.codespeak.cmtt.util.ThreadUtil;
 
 /**
  * Controller for the open development profile scene
@@ -47,15 +73,24 @@ import org.codespeak.cmtt.util.StringUtil;
 public class OpenDevelopmentProfileSceneController implements Initializable {
 
     private Stage controllerStage = null;
-    private Process process = null;
-    private RunAfterProcessThread afterThread = null;
-    private ReadServerInformationThread readThread = null;
+    private ServerSessionManager sessionManager = null;
+    private final Map<ServerSession, Stage> consoleStages = new HashMap<ServerSession, Stage>();
+    private final Map<ServerSession, PauseTransition> crashRestarts = new HashMap<ServerSession, PauseTransition>();
+    private HotRedeployer hotRedeployer = null;
+    private volatile boolean archivingCrashes = false;
+    private boolean updatingSessionChoice = false;
+    private int runningTasks = 0;
     private DevelopmentProfile openedProfile = null;
     private ServerProfile serverProfile = null;
     private JavaProfile javaProfile = null;
     
     @FXML private MenuItem debugServerMenuItem;
+    @FXML private CheckMenuItem hotRedeployMenuItem;
+    @FXML private CheckMenuItem crashWatchdogMenuItem;
+    @FXML private CheckMenuItem restartAfterCrashMenuItem;
     @FXML private MenuItem deleteLocalWorldsMenuItem;
+    @FXML private MenuItem stopServerMenuItem;
+    @FXML private MenuItem restartServerMenuItem;
     @FXML private Label headerLabel;
     @FXML private ComboBox<String> serverProfileChoice;
     @FXML private Button updateProfileButton;
@@ -66,21 +101,71 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
     @FXML private Button startServerButton;
     @FXML private Button updatePluginsButton;
     @FXML private Button updateServerButton;
+    @FXML private ComboBox<String> sessionChoice;
+    @FXML private Label statusLabel;
+    @FXML private Canvas tickCanvas;
+    @FXML private Label tickLabel;
     
-    private void disableControls(boolean disabled) {
-        debugServerMenuItem.setDisable(disabled);
-        deleteLocalWorldsMenuItem.setDisable(disabled);
-        serverProfileChoice.setDisable(disabled);
-        updateProfileButton.setDisable(disabled);
-        javaProfileChoice.setDisable(disabled);
-        startServerButton.setDisable(disabled);
+    private ServerSession getSelectedSession() {
+        return (sessionManager != null && serverProfile != null ? sessionManager.getSession(serverProfile) : null);
+    }
+    
+    private void updateControls() {
+        ServerSession session = getSelectedSession();
+        ServerLauncher launcher = (session != null ? session.getLauncher() : null);
+        boolean selectedActive = (session != null && session.isActive());
+        boolean running = (selectedActive && launcher != null && launcher.isRunning() && !launcher.isStopping());
+        boolean busy = (selectedActive || runningTasks > 0);
+        
+        debugServerMenuItem.setDisable(busy);
+        deleteLocalWorldsMenuItem.setDisable(busy);
+        startServerButton.setDisable(busy);
+        stopServerMenuItem.setDisable(!running);
+        restartServerMenuItem.setDisable(!running);
         
         if (!openedProfile.isUpdatingOutdatedServerAutomatically()) {
-            updateServerButton.setDisable(disabled);
+            updateServerButton.setDisable(busy);
         }
         
         if (!openedProfile.isUpdatingOutdatedPluginsAutomatically()) {
-            updatePluginsButton.setDisable(disabled);
+            updatePluginsButton.setDisable(sessionManager.hasActiveSessions() || runningTasks > 0);
+        }
+        
+        statusLabel.setText(session != null ? session.getStatus() : "");
+        statusLabel.setTooltip(null);
+        
+        drawTicks(launcher != null ? launcher.getTickMonitor() : null);
+        refreshSessionChoice();
+    }
+    
+    private void refreshSessionChoice() {
+        ObservableList<String> items = sessionChoice.getItems();
+        List<ServerSession> sessions = sessionManager.getSessions();
+        ServerSession selectedSession = getSelectedSession();
+        
+        updatingSessionChoice = true;
+        
+        items.clear();
+        
+        for (ServerSession session : sessions) {
+            items.add(session.getDisplayName());
+        }
+        
+        if (selectedSession != null) {
+            sessionChoice.getSelectionModel().select(sessions.indexOf(selectedSession));
+        } else {
+            sessionChoice.getSelectionModel().clearSelection();
+        }
+        
+        updatingSessionChoice = false;
+    }
+    
+    private void setStatus(ServerSession session, String status) {
+        session.setStatus(status);
+        
+        if (session == getSelectedSession()) {
+            statusLabel.setText(status);
+            statusLabel.setTooltip(null);
         }
     }
     
@@ -90,201 +175,480 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
         serverTypeLabel.setText(serverProfile.getServerType().getName());
         
         this.serverProfile = serverProfile;
+        
+        if (sessionManager != null) {
+            updateControls();
+        }
     }
     
-    private Alert getFailedStartAlert() {
-        if (!serverProfile.hasNecessaryFiles()) {
-            Path serverPath = serverProfile.getServerPath();
+    private void runTask(BackgroundTask<?> task) {
+        runningTasks++;
+        updateControls();
+        
+        SceneUtil.runTask(task);
+    }
+    
+    private void taskFinished() {
+        runningTasks--;
+        updateControls();
+    }
+    
+    private boolean confirmClose() {
+        int activeSessions = (sessionManager != null ? sessionManager.getActiveSessions().size() : 0);
+        
+        if (activeSessions == 0) {
+            return true;
+        }
+        
+        Alert alert = AlertUtil.createAlert("Closing this window stops " + (activeSessions > 1 ? "the " + activeSessions + " running servers" : "the running server")
+                                            + ". Are you sure you want to close it?");
+        
+        alert.getButtonTypes().setAll(new ButtonType[] {ButtonType.YES, ButtonType.NO});
+        
+        ButtonType result = alert.showAndWait().get();
+        
+        return result == ButtonType.YES;
+    }
+    
+    private void startServer(boolean debugMode) {
+        ServerSession session = sessionManager.getOrCreateSession(serverProfile);
+        
+        if (session.isActive() || runningTasks > 0) {
+            return;
+        }
+        
+        if (sessionManager.hasActiveSessions() && !openedProfile.getPlugins().isEmpty()) {
+            Alert alert = AlertUtil.createAlert(Alert.AlertType.WARNING, "Plugins running on both servers share the same data folders, so their data may be overwritten.",
+                                                "Another server is already running with the plugins of this profile.");
+            
+            alert.getButtonTypes().setAll(new ButtonType[] {ButtonType.OK, ButtonType.CANCEL});
             
-            if (!serverPath.toFile().exists()) {
-                return AlertUtil.createAlert("The server file cannot be found. Unable to start Minecraft server.");                
+            if (alert.showAndWait().get() != ButtonType.OK) {
+                return;
             }
         }
-
-        ServerTypes serverType = serverProfile.getServerType();
-        String pluginsFolderArgument = (serverType == ServerTypes.CUSTOM ? serverProfile.getCustomPluginsFolderArgument() : serverType.getPluginsFolderArgument());
         
-        if (!StringUtil.isNullOrEmpty(pluginsFolderArgument)) {
-            List<Plugin> plugins = openedProfile.getPlugins();
-            Path pluginsFolderLocation = openedProfile.getPluginsLocation();
+        startSession(session, javaProfile, debugMode);
+    }
+    
+    private void startSession(ServerSession session, JavaProfile launchJavaProfile, boolean debugMode) {
+        ServerProfile launchServerProfile = session.getServerProfile();
+        ServerLauncher serverLauncher = new ServerLauncher(openedProfile, launchServerProfile, launchJavaProfile, session.getConsoleBuffer()) {
+            @Override
+            public void pluginProgress(int completed, int total) {
+                Platform.runLater(() -> {
+                    setStatus(session, "Synchronizing plugins (" + completed + "/" + total + ")...");
+                });
+            }
             
-            for (Plugin plugin : plugins) {
-                if (!plugin.hasPluginFile(pluginsFolderLocation)) {
-                    Path pluginPath = plugin.getPath();
+            @Override
+            public void informationFound(String minecraftVersion, String serverDetails) {
+                Platform.runLater(() -> {
+                    launchServerProfile.setMinecraftVersion(minecraftVersion);
+                    launchServerProfile.setServerDetails(serverDetails);
                     
-                    if (!pluginPath.toFile().exists()) {
-                        return AlertUtil.createAlert("One or more plugins cannot be found. Unable to start Minecraft server.");
+                    if (serverProfile == launchServerProfile) {
+                        minecraftVersionLabel.setText(minecraftVersion);
+                        serverDetailsLabel.setText(serverDetails);
+                    }
+                });
+            }
+            
+            @Override
+            public void started(LaunchRecord record, LaunchRegression regression) {
+                int port = getPort();
+                ServerStatus status = getServerStatus();
+                
+                Platform.runLater(() -> {
+                    serverStarted(session, record, regression, port, status);
+                });
+            }
+            
+            @Override
+            public void ticksSampled(double tps, double mspt) {
+                TickMonitorThread monitor = getTickMonitor();
+                
+                Platform.runLater(() -> {
+                    if (session.getLauncher() == this && session == getSelectedSession()) {
+                        drawTicks(monitor);
+                    }
+                });
+            }
+            
+            @Override
+            public void finished(int exitCode) {
+                ResourceUsage usage = getResourceUsage();
+                boolean crashed = archivingCrashes && isCrashed(exitCode);
+                Path crashPath = null;
+                
+                if (crashed) {
+                    try {
+                        crashPath = session.getCrashWatchdog().crashed(this, exitCode);
+                    } catch (IOException ex) {
+                        
                     }
                 }
+                
+                Path archivePath = crashPath;
+                
+                Platform.runLater(() -> {
+                    if (session.getLauncher() != this) {
+                        return;
+                    }
+                    
+                    session.setActive(false);
+                    serverStopped(session, this, usage);
+                    
+                    if (crashed) {
+                        serverCrashed(session, this, exitCode, archivePath);
+                    }
+                    
+                    if (!sessionManager.hasActiveSessions()) {
+                        stopHotRedeploy();
+                    }
+                    
+                    if (session.isRestartPending()) {
+                        session.setRestartPending(false);
+                        
+                        startSession(session, session.getJavaProfile(), session.isDebugMode());
+                    }
+                    
+                    updateControls();
+                });
             }
+        };
+        
+        String startProblem = serverLauncher.getStartProblem();
+        
+        if (startProblem != null) {
+            Alert alert = AlertUtil.createAlert(startProblem);
+            alert.show();
+            
+            return;
         }
         
-        return null;
-    }
+        session.setLauncher(serverLauncher, launchJavaProfile, debugMode);
+        session.setActive(true);
+        
+        cancelCrashRestart(session);
+        setStatus(session, "Preparing server...");
+        updateControls();
+        
+        Thread prepareThread = ThreadUtil.newThread("Server Preparation", () -> {
+            try {
+                serverLauncher.prepare();
+            } catch (IOException ex) {
+                Platform.runLater(() -> {
+                    session.setActive(false);
+                    setStatus(session, "");
+                    updateControls();
+                    
+                    ProgramException ex2 = ProgramException.fromException(ex);
 
-    private List<String> getServerStartupArguments(boolean debugMode) {
-        List<String> commands = new ArrayList<String>();
-        
-        String lowerMemory = openedProfile.getLowerMemory();
-        String upperMemory = openedProfile.getUpperMemory();
-        String jvmFlagsString = openedProfile.getJVMFlagsString();
-        String OS = System.getProperty("os.name").toLowerCase();
-        boolean isWindows = OS.indexOf("win") > -1;
-        String windowTitle = "Deveopment profile: " + openedProfile.getName() + " Selected server: " + serverProfile.getName();
-        
-        if (isWindows) {
-            commands.add("cmd");
-            commands.add("/c");
-            commands.add("start");
-            commands.add(windowTitle);
-            commands.add("/wait");
-            commands.add("cmd");
-            commands.add("/c");
-        } else {
-            commands.add("/bin/bash");
-            commands.add("-c");
+                    Main.handleError(ex2);
+                });
+                
+                return;
+            } catch (InterruptedException ex) {
+                return;
+            }
+            
+            Platform.runLater(() -> {
+                launchServer(session, serverLauncher, debugMode);
+            });
+        });
+        
+        prepareThread.start();
+    }
+    
+    private void launchServer(ServerSession session, ServerLauncher serverLauncher, boolean debugMode) {
+        if (!controllerStage.isShowing() || session.getLauncher() != serverLauncher) {
+            return;
         }
         
-        commands.add(javaProfile != null ? javaProfile.getJavaExecutablePath().toString() : "java");
+        setStatus(session, "");
         
-        if (!StringUtil.isNullOrEmpty(jvmFlagsString)) {
-            List<String> flagList = StringUtil.splitStringToList(jvmFlagsString);
+        try {
+            serverLauncher.launch(debugMode);
+        } catch (IOException ex) {
+            session.setActive(false);
+            updateControls();
+            
+            ProgramException ex2 = ProgramException.fromException(ex);
+
+            Main.handleError(ex2);
             
-            commands.addAll(flagList);
+            return;
         }
         
-        if (!StringUtil.isNullOrEmpty(lowerMemory)) {
-            commands.add("-Xms" + lowerMemory);
+        updateControls();
+        
+        if (hotRedeployMenuItem.isSelected() && hotRedeployer == null) {
+            startHotRedeploy();
         }
+    }
+    
+    private void serverStarted(ServerSession session, LaunchRecord record, LaunchRegression regression, int port, ServerStatus status) {
+        String text = String.format("Server started in %.2fs on port %d.", record.getTotalTime() / 1000.0, port);
         
-        if (!StringUtil.isNullOrEmpty(upperMemory)) {
-            commands.add("-Xmx" + upperMemory);
+        if (regression != null) {
+            text += " Slower than usual.";
         }
-
-        ServerTypes serverType = serverProfile.getServerType();
         
-        if (serverType.is(ServerTypes.BUKKIT, ServerTypes.SPIGOT)) {
-            commands.add("-DIReallyKnowWhatIAmDoingISwear");
+        setStatus(session, text);
+        refreshSessionChoice();
+        
+        if (session == getSelectedSession() && status != null) {
+            statusLabel.setTooltip(new Tooltip(String.format("Protocol %d (%s), ping %dms\n%s", status.getProtocolVersion(),
+                                                             status.getVersionName(), status.getLatency(), status.getMOTD())));
         }
         
-        commands.add("-jar");
-        commands.add("server.jar");
+        if (regression != null && controllerStage.isShowing()) {
+            Alert alert = AlertUtil.createAlert(Alert.AlertType.WARNING, regression.getMessage(),
+                                                session.getServerProfile().getName() + " started slower than usual.");
+            alert.show();
+        }
+    }
+    
+    private void plotSamples(GraphicsContext gc, double[] samples, int capacity, double scale, Color color) {
+        double width = tickCanvas.getWidth();
+        double height = tickCanvas.getHeight();
+        double step = width / (capacity - 1);
+        double offset = (capacity - samples.length) * step;
         
-        String minecraftServerArguments = openedProfile.getMinecraftServerArguments();
+        gc.setStroke(color);
+        gc.setLineWidth(1.5);
+        gc.beginPath();
         
-        if (!StringUtil.isNullOrEmpty(minecraftServerArguments)) {
-            List<String> args = StringUtil.splitStringToList(minecraftServerArguments);
+        for (int i = 0; i < samples.length; i++) {
+            double x = offset + i * step;
+            double y = height - 1 - Math.min(samples[i] / scale, 1) * (height - 2);
             
-            for (String arg : args) {
-                commands.add(arg);
+            if (i == 0) {
+                gc.moveTo(x, y);
+            } else {
+                gc.lineTo(x, y);
             }
         }
         
-        String customWorldNameArgument = (serverType == ServerTypes.CUSTOM ? serverProfile.getCustomWorldNameArgument() : serverType.getWorldNameArgument());
-        String customServerWorldName = openedProfile.getCustomServerWorldName();
+        gc.stroke();
+    }
+    
+    private void drawTicks(TickMonitorThread monitor) {
+        GraphicsContext gc = tickCanvas.getGraphicsContext2D();
+        double width = tickCanvas.getWidth();
+        double height = tickCanvas.getHeight();
+        
+        gc.clearRect(0, 0, width, height);
+        gc.setLineWidth(1);
+        gc.setStroke(Color.LIGHTGRAY);
+        gc.strokeRect(0.5, 0.5, width - 1, height - 1);
         
-        if (!StringUtil.isNullOrEmpty(customWorldNameArgument) && !StringUtil.isNullOrEmpty((customServerWorldName))) {
-            commands.add(customWorldNameArgument);
-            commands.add(customServerWorldName);            
+        if (monitor == null || monitor.getTPSSamples().size() == 0) {
+            tickLabel.setText("");
+            
+            return;
+        }
+        
+        double[] tpsSamples = monitor.getTPSSamples().toArray();
+        double[] msptSamples = monitor.getMSPTSamples().toArray();
+        int capacity = monitor.getTPSSamples().getCapacity();
+        double msptScale = Math.max(TickMonitorThread.TARGET_MSPT * 2, monitor.getMSPTSamples().getMax());
+        double lowestTPS = TickMonitorThread.TARGET_TPS;
+        
+        for (double tps : tpsSamples) {
+            lowestTPS = Math.min(lowestTPS, tps);
         }
-
-        String worldsFolderArgument = (serverType == ServerTypes.CUSTOM ? serverProfile.getCustomWorldsFolderArgument() : serverType.getWorldsFolderArgument());
-
-        if (!StringUtil.isNullOrEmpty(worldsFolderArgument) && !openedProfile.isUsingServerWorlds()) {
-            commands.add(worldsFolderArgument);
-
-            Path worldsLocation = openedProfile.getWorldLocation(serverProfile);
-            File fileWorldsLocation = worldsLocation.toFile();
-
-            if (!fileWorldsLocation.exists()) {
-                fileWorldsLocation.mkdirs();
-            }
-
-            commands.add(worldsLocation.toString());
-        }            
-
-        String pluginsFolderArgument = (serverType == ServerTypes.CUSTOM ? serverProfile.getCustomPluginsFolderArgument() : serverType.getPluginsFolderArgument());
         
-        if (!StringUtil.isNullOrEmpty(pluginsFolderArgument)) {
-            List<Plugin> plugins = openedProfile.getPlugins();
-            Path pluginsLocation = openedProfile.getPluginsLocation().toAbsolutePath();
+        if (msptSamples.length > 0) {
+            double limitY = height - 1 - (TickMonitorThread.TARGET_MSPT / msptScale) * (height - 2);
             
-            if (!plugins.isEmpty()) {
-                for (Plugin plugin : plugins) {
-                    if (!plugin.hasPluginFile(pluginsLocation) || (openedProfile.isUpdatingOutdatedPluginsAutomatically() && plugin.canUpdate())) {
-                        plugin.update(pluginsLocation);                        
-                    }
-                }
-
-                commands.add(pluginsFolderArgument);
-                commands.add(pluginsLocation.toString());
-            }
+            gc.setStroke(Color.LIGHTCORAL);
+            gc.setLineDashes(4);
+            gc.strokeLine(0, limitY, width, limitY);
+            gc.setLineDashes(null);
+            
+            plotSamples(gc, msptSamples, capacity, msptScale, Color.ORANGE);
         }
-
-        if (!openedProfile.isUsingServerGUI()) {
-            commands.add("nogui");
+        
+        plotSamples(gc, tpsSamples, capacity, TickMonitorThread.TARGET_TPS * 1.25, Color.GREEN);
+        
+        String text = String.format("TPS %.1f (lowest %.1f)", tpsSamples[tpsSamples.length - 1], lowestTPS);
+        
+        if (msptSamples.length > 0) {
+            text += String.format(", MSPT %.1fms", msptSamples[msptSamples.length - 1]);
         }
         
-        if (debugMode) {
-            if (isWindows) {
-                commands.add("^&");
-                commands.add("pause");
-            }
+        if (!monitor.isUsingRcon()) {
+            text += ", estimated from server log";
         }
         
-        return commands;
+        tickLabel.setText(text);
     }
-
-    private void startServer(boolean debugMode) {
-        Path profilePath = serverProfile.getProfilePath();
-
-        Alert checkAlert = getFailedStartAlert();
+    
+    private void serverStopped(ServerSession session, ServerLauncher serverLauncher, ResourceUsage usage) {
+        String text = "Server stopped";
         
-        if (checkAlert != null) {
-            checkAlert.show();
+        if (serverLauncher.getShutdownTime() >= 0) {
+            text += String.format(" in %.2fs", serverLauncher.getShutdownTime() / 1000.0);
             
-            return;
+            if (serverLauncher.isForciblyStopped()) {
+                text += " (forcibly)";
+            }
         }
         
-        boolean updated = false;
+        text += ".";
         
-        if (!serverProfile.hasNecessaryFiles() || (openedProfile.isUpdatingOutdatedServerAutomatically() && serverProfile.canUpdate())) {
-            serverProfile.update();
-            
-            updated = true;
+        if (usage != null) {
+            text += String.format(" Peak memory %d MB, %d threads, %d open files.", usage.getPeakResidentMemory() / (1024 * 1024),
+                                  usage.getPeakThreads(), usage.getPeakFileDescriptors());
         }
-
-        List<String> commands = getServerStartupArguments(debugMode);
         
-        try {
-            ProcessBuilder pb = new ProcessBuilder(commands);
-            pb.directory(profilePath.toFile());
-
-            process = pb.start();
-        } catch (IOException ex) {
-            ProgramException ex2 = ProgramException.fromException(ex);
-
-            Main.handleError(ex2);
+        setStatus(session, text);
+    }
+    
+    private void serverCrashed(ServerSession session, ServerLauncher serverLauncher, int exitCode, Path archivePath) {
+        String text = (serverLauncher.isWatchdogTriggered() ? "Server stopped responding" : "Server crashed with exit code " + exitCode) + ".";
+        
+        if (archivePath != null) {
+            text += " Archived to " + archivePath.getFileName() + ".";
+        }
+        
+        if (restartAfterCrashMenuItem.isSelected() && !session.isRestartPending() && controllerStage.isShowing()) {
+            long delay = session.getCrashWatchdog().getRestartDelay();
+            PauseTransition crashRestart = new PauseTransition(Duration.millis(delay));
+            
+            text += String.format(" Restarting in %ds.", delay / 1000);
+            
+            crashRestart.setOnFinished((ActionEvent event) -> {
+                crashRestarts.remove(session);
+                
+                if (controllerStage.isShowing() && !session.isActive()) {
+                    startSession(session, session.getJavaProfile(), session.isDebugMode());
+                }
+            });
             
+            crashRestarts.put(session, crashRestart);
+            crashRestart.play();
+        }
+        
+        setStatus(session, text);
+        
+        if (archivePath != null && session == getSelectedSession()) {
+            statusLabel.setTooltip(new Tooltip(archivePath.toString()));
+        }
+    }
+    
+    private void cancelCrashRestart(ServerSession session) {
+        PauseTransition crashRestart = crashRestarts.remove(session);
+        
+        if (crashRestart != null) {
+            crashRestart.stop();
+        }
+    }
+    
+    private void cancelCrashRestarts() {
+        for (PauseTransition crashRestart : crashRestarts.values()) {
+            crashRestart.stop();
+        }
+        
+        crashRestarts.clear();
+    }
+    
+    private boolean stopServer(ServerSession session) {
+        ServerLauncher launcher = (session != null ? session.getLauncher() : null);
+        
+        if (launcher == null) {
+            return false;
+        }
+        
+        Settings settings = Configuration.getSettings();
+        int stopTimeout = settings.getSetting(SettingFields.STOP_TIMEOUT);
+        
+        if (!launcher.stop(stopTimeout, TimeUnit.SECONDS)) {
+            return false;
+        }
+        
+        setStatus(session, "Stopping server...");
+        updateControls();
+        
+        return true;
+    }
+    
+    private void startHotRedeploy() {
+        if (openedProfile.getPlugins().isEmpty()) {
             return;
         }
-
-        disableControls(true);
         
-        afterThread = new RunAfterProcessThread(process) {
+        hotRedeployer = new HotRedeployer(openedProfile.getPlugins(), openedProfile.getPluginsLocation().toAbsolutePath()) {
             @Override
-            public void finished() {
-                disableControls(false);
+            public void redeployed(List<Plugin> redeployedPlugins) {
+                Platform.runLater(() -> {
+                    int count = redeployedPlugins.size();
+                    
+                    for (ServerSession session : sessionManager.getActiveSessions()) {
+                        ServerProfile sessionServerProfile = session.getServerProfile();
+                        ServerTypes serverType = sessionServerProfile.getServerType();
+                        String pluginsFolderArgument = (serverType == ServerTypes.CUSTOM ? sessionServerProfile.getCustomPluginsFolderArgument() : serverType.getPluginsFolderArgument());
+                        String reloadCommand = serverType.getReloadCommand();
+                        ServerLauncher launcher = session.getLauncher();
+                        
+                        if (StringUtil.isNullOrEmpty(pluginsFolderArgument) || launcher == null || !launcher.isRunning()) {
+                            continue;
+                        }
+                        
+                        setStatus(session, count + " plugin" + (count > 1 ? "s were" : " was") + " redeployed.");
+                        
+                        if (!StringUtil.isNullOrEmpty(reloadCommand)) {
+                            launcher.sendCommand(reloadCommand);
+                        } else {
+                            session.setRestartPending(stopServer(session));
+                        }
+                    }
+                });
             }
         };
         
-        afterThread.start();
+        hotRedeployer.start();
+    }
+    
+    private void stopHotRedeploy() {
+        if (hotRedeployer != null) {
+            hotRedeployer.stop();
+            
+            hotRedeployer = null;
+        }
+    }
+    
+    /**
+     * Sends a command to the console of the selected server
+     * @param command command to send
+     * @return if the command was sent
+     */
+    public boolean sendServerCommand(String command) {
+        ServerSession session = getSelectedSession();
         
-        if (!debugMode && updated) {
-            readThread = new ReadServerInformationThread(process, serverProfile, minecraftVersionLabel, serverDetailsLabel);
-
-            readThread.start();            
+        return session != null && session.getLauncher() != null && session.getLauncher().sendCommand(command);
+    }
+    
+    /**
+     * Runs a command on the selected server over RCON and gets its response
+     * @param command command to run, without a leading slash
+     * @return future completed with the response of the server, or
+     * completed exceptionally if the server isn't running or it couldn't be
+     * reached
+     */
+    public CompletableFuture<String> executeServerCommand(String command) {
+        ServerSession session = getSelectedSession();
+        
+        if (session == null || session.getLauncher() == null) {
+            CompletableFuture<String> future = new CompletableFuture<String>();
+            future.completeExceptionally(new IOException("The server is not running"));
+            
+            return future;
         }
+        
+        return session.getLauncher().executeCommand(command);
     }
     
     /**
@@ -318,13 +682,25 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
     public void setControllerStage(Stage controllerStage) {
         this.controllerStage = controllerStage;
 
+        this.controllerStage.setOnCloseRequest((WindowEvent windowEvent) -> {
+            if (!confirmClose()) {
+                windowEvent.consume();
+            }
+        });
+        
         this.controllerStage.setOnHidden((WindowEvent windowEvent) -> {
-            if (afterThread != null && afterThread.isAlive()) {
-                afterThread.interrupt();
+            if (sessionManager != null) {
+                Settings settings = Configuration.getSettings();
+                int stopTimeout = settings.getSetting(SettingFields.STOP_TIMEOUT);
+                
+                sessionManager.stopAll(stopTimeout, TimeUnit.SECONDS);
             }
             
-            if (readThread != null && readThread.isAlive()) {
-                readThread.interrupt();
+            stopHotRedeploy();
+            cancelCrashRestarts();
+            
+            for (Stage consoleStage : new ArrayList<Stage>(consoleStages.values())) {
+                consoleStage.close();
             }
         });
     }
@@ -341,6 +717,7 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
         serverProfile = profile.getServerProfile();
         javaProfile = profile.getJavaProfile();
         openedProfile = profile;
+        sessionManager = new ServerSessionManager(profile);
 
         serverProfileChoice.getSelectionModel().select(serverProfile.getName());                
         selectServerProfile(serverProfile);
@@ -354,6 +731,27 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
         if (openedProfile.isUpdatingOutdatedServerAutomatically()) {
             updateServerButton.setDisable(true);
         }
+        
+        if (MappedDataHandler.hasMappedData("hot_redeploy_plugins")) {
+            boolean hotRedeploy = MappedDataHandler.getMappedData("hot_redeploy_plugins");
+            
+            hotRedeployMenuItem.setSelected(hotRedeploy);
+        }
+        
+        if (MappedDataHandler.hasMappedData("archive_crashes")) {
+            boolean archiveCrashes = MappedDataHandler.getMappedData("archive_crashes");
+            
+            crashWatchdogMenuItem.setSelected(archiveCrashes);
+        }
+        
+        if (MappedDataHandler.hasMappedData("restart_after_crash")) {
+            boolean restartAfterCrash = MappedDataHandler.getMappedData("restart_after_crash");
+            
+            restartAfterCrashMenuItem.setSelected(restartAfterCrash);
+        }
+        
+        archivingCrashes = crashWatchdogMenuItem.isSelected();
+        restartAfterCrashMenuItem.setDisable(!archivingCrashes);
     }
     
     @FXML
@@ -410,7 +808,9 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
     
     @FXML
     public void onCloseMenuItemClick(ActionEvent event) {
-        controllerStage.close();
+        if (confirmClose()) {
+            controllerStage.close();
+        }
     }
 
     @FXML
@@ -418,6 +818,145 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
         startServer(true);
     }
     
+    @FXML
+    public void onLaunchStatisticsMenuItemClick(ActionEvent event) {
+        try {
+            StageController<LaunchStatisticsSceneController> stageController = SceneUtil.getScene(SceneTypes.LAUNCH_STATISTICS, "Launch Statistics");
+            Stage stage = stageController.getStage();
+            LaunchStatisticsSceneController controller = stageController.getController();
+
+            stage.show();
+            controller.setControllerStage(stage);
+            controller.showProfile(openedProfile);
+        } catch (IOException ex) {
+            ProgramException ex2 = ProgramException.fromException(ex);
+
+            Main.handleError(ex2);
+        }
+    }
+    
+    @FXML
+    public void onHotRedeployMenuItemClick(ActionEvent event) {
+        boolean hotRedeploy = hotRedeployMenuItem.isSelected();
+        
+        MappedDataHandler.setMappedData("hot_redeploy_plugins", hotRedeploy);
+        
+        if (sessionManager.hasActiveSessions()) {
+            if (hotRedeploy && hotRedeployer == null) {
+                startHotRedeploy();
+            } else if (!hotRedeploy) {
+                stopHotRedeploy();
+            }
+        }
+    }
+    
+    @FXML
+    public void onCrashWatchdogMenuItemClick(ActionEvent event) {
+        archivingCrashes = crashWatchdogMenuItem.isSelected();
+        
+        MappedDataHandler.setMappedData("archive_crashes", archivingCrashes);
+        
+        restartAfterCrashMenuItem.setDisable(!archivingCrashes);
+        
+        if (!archivingCrashes) {
+            cancelCrashRestarts();
+        }
+    }
+    
+    @FXML
+    public void onRestartAfterCrashMenuItemClick(ActionEvent event) {
+        boolean restartAfterCrash = restartAfterCrashMenuItem.isSelected();
+        
+        MappedDataHandler.setMappedData("restart_after_crash", restartAfterCrash);
+        
+        if (!restartAfterCrash) {
+            cancelCrashRestarts();
+        }
+    }
+    
+    @FXML
+    public void onStopServerMenuItemClick(ActionEvent event) {
+        ServerSession session = getSelectedSession();
+        
+        if (session != null) {
+            session.setRestartPending(false);
+            
+            stopServer(session);
+        }
+    }
+    
+    @FXML
+    public void onRestartServerMenuItemClick(ActionEvent event) {
+        ServerSession session = getSelectedSession();
+        
+        if (session != null) {
+            session.setRestartPending(stopServer(session));
+        }
+    }
+    
+    @FXML
+    public void onSelectSession() {
+        int index = sessionChoice.getSelectionModel().getSelectedIndex();
+        List<ServerSession> sessions = sessionManager.getSessions();
+        
+        if (updatingSessionChoice || index < 0 || index >= sessions.size()) {
+            return;
+        }
+        
+        ServerProfile sessionServerProfile = sessions.get(index).getServerProfile();
+        
+        if (sessionServerProfile != serverProfile) {
+            serverProfileChoice.getSelectionModel().select(sessionServerProfile.getName());
+            selectServerProfile(sessionServerProfile);
+        }
+    }
+    
+    @FXML
+    public void onShowConsoleMenuItemClick(ActionEvent event) {
+        ServerSession session = getSelectedSession();
+        
+        if (session == null) {
+            Alert alert = AlertUtil.createAlert("The selected server has not been started from this window.");
+            alert.show();
+            
+            return;
+        }
+        
+        Stage consoleStage = consoleStages.get(session);
+        
+        if (consoleStage != null && consoleStage.isShowing()) {
+            consoleStage.toFront();
+            
+            return;
+        }
+        
+        try {
+            String title = "Console: " + openedProfile.getName() + " - " + session.getServerProfile().getName();
+            StageController<ConsoleSceneController> stageController = SceneUtil.getScene(new Stage(), SceneTypes.CONSOLE, title, false);
+            ConsoleSceneController controller = stageController.getController();
+            Stage newConsoleStage = stageController.getStage();
+            
+            consoleStages.put(session, newConsoleStage);
+            newConsoleStage.setResizable(true);
+            newConsoleStage.show();
+            newConsoleStage.addEventHandler(WindowEvent.WINDOW_HIDDEN, (WindowEvent windowEvent) -> {
+                consoleStages.remove(session, newConsoleStage);
+            });
+            controller.setControllerStage(newConsoleStage);
+            controller.setConsole(session.getConsoleBuffer(), (String command) -> {
+                ServerLauncher launcher = session.getLauncher();
+                
+                if (launcher != null) {
+                    launcher.sendCommand(command);
+                }
+            });
+        } catch (IOException ex) {
+            ProgramException ex2 = ProgramException.fromException(ex);
+
+            Main.handleError(ex2);
+        }
+    }
+    
     @FXML
     public void onOpenLatestLogMenuItemClick(ActionEvent event) {
         Path targetPath = serverProfile.getProfilePath().resolve("logs").resolve("latest.log");
@@ -504,21 +1043,42 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
             return;
         }
 
-        String message = "";
-        
-        try {
-            Files.walk(localWorldsPath)
-                 .sorted(Comparator.reverseOrder())
-                 .map(Path::toFile)
-                 .forEach(File::delete);
-
-            message = "The local worlds for the selected server have been deleted.";
-        } catch (IOException ex) {
-            message = "The local worlds for the selected server could not be completely deleted.";
-        }
-
-        Alert alert = AlertUtil.createAlert(message);
-        alert.show();
+        runTask(new BackgroundTask<DeleteResult>("Deleting local worlds of " + serverProfile.getName()) {
+            @Override
+            protected DeleteResult call() {
+                return FileUtil.discard(localWorldsPath, this);
+            }
+            
+            @Override
+            public void succeeded(DeleteResult result) {
+                taskFinished();
+                
+                if (!result.getFailedPaths().isEmpty()) {
+                    Alert alert = AlertUtil.createAlert(Alert.AlertType.WARNING, result.getFailureMessage(),
+                                                        "The local worlds for the selected server could not be completely deleted.");
+                    alert.show();
+                    
+                    return;
+                }
+                
+                Alert alert = AlertUtil.createAlert("The local worlds for the selected server have been deleted.");
+                alert.show();
+            }
+            
+            @Override
+            public void failed(Exception ex) {
+                taskFinished();
+                super.failed(ex);
+            }
+            
+            @Override
+            public void cancelled() {
+                taskFinished();
+                
+                Alert alert = AlertUtil.createAlert("Deleting the local worlds was cancelled. Some worlds may have been partially deleted.");
+                alert.show();
+            }
+        });
     }
     
     @FXML
@@ -546,17 +1106,40 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
             return;
         }
         
-        if (!serverProfile.hasNecessaryFiles() || serverProfile.hasUpdate()) {
-            serverProfile.update();
+        ServerProfile updatedServerProfile = serverProfile;
+        
+        runTask(new BackgroundTask<Boolean>("Updating " + updatedServerProfile.getName()) {
+            @Override
+            protected Boolean call() {
+                if (!updatedServerProfile.hasNecessaryFiles() || updatedServerProfile.hasUpdate()) {
+                    updateMessage("Copying server jar...");
+                    updatedServerProfile.update();
+                    
+                    return true;
+                }
+                
+                return false;
+            }
             
-            Alert alert = AlertUtil.createAlert("The server has been updated.");
-            alert.show();
+            @Override
+            public void succeeded(Boolean updated) {
+                taskFinished();
+                
+                Alert alert = AlertUtil.createAlert(updated ? "The server has been updated." : "The server is already up-to-date.");
+                alert.show();
+            }
             
-            return;
-        }
-        
-        Alert alert = AlertUtil.createAlert("The server is already up-to-date.");
-        alert.show();
+            @Override
+            public void failed(Exception ex) {
+                taskFinished();
+                super.failed(ex);
+            }
+            
+            @Override
+            public void cancelled() {
+                taskFinished();
+            }
+        });
     }
 
     @FXML
@@ -571,25 +1154,46 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
         }
 
         Path pluginsLocation = openedProfile.getPluginsLocation().toAbsolutePath();
-        int upToDatePlugins = plugins.size();
-        int pluginsUpdated = 0;
-        int pluginsFailedUpdate = 0;
-
-        for (Plugin plugin : plugins) {
-            Path path = plugin.getPath();
+        
+        runTask(new BackgroundTask<PluginSynchronizer>("Updating plugins") {
+            @Override
+            protected PluginSynchronizer call() throws IOException, InterruptedException {
+                PluginSynchronizer synchronizer = new PluginSynchronizer(plugins, pluginsLocation, true) {
+                    @Override
+                    public void progress(int completed, int total) {
+                        updateProgress(completed, total);
+                        updateMessage(completed + " of " + total + " plugins checked");
+                    }
+                };
+                
+                synchronizer.synchronize();
+                
+                return synchronizer;
+            }
             
-            if (path.toFile().exists()) {
-                if (!plugin.hasPluginFile(pluginsLocation) || plugin.hasUpdate()) {
-                    plugin.update(pluginsLocation);
-
-                    pluginsUpdated++;
-                    upToDatePlugins--;
-                }
-            } else {
-                pluginsFailedUpdate++;
-                upToDatePlugins--;
+            @Override
+            public void succeeded(PluginSynchronizer synchronizer) {
+                taskFinished();
+                pluginsUpdated(synchronizer);
             }
-        }
+            
+            @Override
+            public void failed(Exception ex) {
+                taskFinished();
+                super.failed(ex);
+            }
+            
+            @Override
+            public void cancelled() {
+                taskFinished();
+            }
+        });
+    }
+    
+    private void pluginsUpdated(PluginSynchronizer synchronizer) {
+        int upToDatePlugins = synchronizer.getUpToDateCount();
+        int pluginsUpdated = synchronizer.getUpdatedCount();
+        int pluginsFailedUpdate = synchronizer.getFailedCount();
         
         String updateMsg = "";
 
@@ -619,7 +1223,9 @@ public class OpenDevelopmentProfileSceneController implements Initializable {
     
     @FXML
     public void onCloseButtonClick(ActionEvent event) {
-        controllerStage.close();
+        if (confirmClose()) {
+            controllerStage.close();
+        }
     }
     
 }
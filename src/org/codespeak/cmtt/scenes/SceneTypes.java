@@ -16,8 +16,11 @@ public enum SceneTypes {
     ADD_EDIT_JAVA_PROFILE("AddEditJavaProfileScene.fxml"),
     JAVA_PROFILES("JavaProfilesScene.fxml"),
     OPEN_DEVELOPMENT_PROFILE("OpenDevelopmentProfileScene.fxml"),
+    CONSOLE("ConsoleScene.fxml"),
+    LAUNCH_STATISTICS("LaunchStatisticsScene.fxml"),
     ABOUT("AboutScene.fxml"),
-    SETTINGS("SettingsScene.fxml");
+    SETTINGS("SettingsScene.fxml"),
+    TASK_PROGRESS("TaskProgressScene.fxml");
     
     private final String fxmlName;
     
@@ -16,6 +16,8 @@ import javafx.scene.control.ListView;
 import javafx.scene.control.MultipleSelectionModel;
 import javafx.stage.Stage;
 import org.codespeak.cmtt.Main;
+import org.codespeak.cmtt.objects.BackgroundTask;
+import org.codespeak.cmtt.objects.DeleteResult;
 import org.codespeak.cmtt.objects.ProgramException;
 import org.codespeak.cmtt.profiles.ServerProfile;
 import org.codespeak.cmtt.objects.StageController;
@@ -166,11 +168,25 @@ public class ServerProfilesSceneController implements Initializable {
                 return;
             }
             
-            profile.remove();
-            
             items.remove(selectedIndex);
             
             ServerProfileHandler.deleteProfile(profile.getId());
+            
+            SceneUtil.runTask(new BackgroundTask<DeleteResult>("Deleting " + profile.getName()) {
+                @Override
+                protected DeleteResult call() {
+                    return profile.remove(this);
+                }
+                
+                @Override
+                public void succeeded(DeleteResult result) {
+                    if (!result.getFailedPaths().isEmpty()) {
+                        Alert alert = AlertUtil.createAlert(Alert.AlertType.WARNING, result.getFailureMessage(),
+                                                            "The files of the profile could not be completely deleted.");
+                        alert.show();
+                    }
+                }
+            });
         }
     }
     
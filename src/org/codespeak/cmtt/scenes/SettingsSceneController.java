@@ -6,14 +6,17 @@ import java.util.ResourceBundle;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.codespeak.cmtt.Configuration;
 import org.codespeak.cmtt.Settings;
 import org.codespeak.cmtt.Settings.SettingFields;
+import org.codespeak.cmtt.util.AlertUtil;
 import org.codespeak.cmtt.util.StringUtil;
 
 /**
@@ -32,6 +35,11 @@ public class SettingsSceneController implements Initializable {
     @FXML Label serverJarfileBaseDirectoryLabel;
     @FXML CheckBox rememberSelectedDevelopmentProfileCheck;
     @FXML CheckBox checkUpdateOnStartupCheck;
+    @FXML CheckBox launchThroughShellCheck;
+    @FXML TextField regressionThresholdField;
+    @FXML TextField serverPortRangeStartField;
+    @FXML TextField serverPortRangeEndField;
+    @FXML TextField stopTimeoutField;
     
     /**
      * Initializes the controller class.
@@ -45,6 +53,11 @@ public class SettingsSceneController implements Initializable {
         serverJarfileBaseDirectoryLabel.setText(settings.getSetting(SettingFields.SERVER_JARFILE_BASE_DIRECTORY));
         rememberSelectedDevelopmentProfileCheck.setSelected(settings.getSetting(SettingFields.REMEMBER_SELECTED_DEVELOPMENT_PROFILE));
         checkUpdateOnStartupCheck.setSelected(settings.getSetting(SettingFields.CHECK_UPDATE_ON_STARTUP));
+        launchThroughShellCheck.setSelected(settings.getSetting(SettingFields.LAUNCH_THROUGH_SHELL));
+        regressionThresholdField.setText(settings.getSetting(SettingFields.REGRESSION_THRESHOLD).toString());
+        serverPortRangeStartField.setText(settings.getSetting(SettingFields.SERVER_PORT_RANGE_START).toString());
+        serverPortRangeEndField.setText(settings.getSetting(SettingFields.SERVER_PORT_RANGE_END).toString());
+        stopTimeoutField.setText(settings.getSetting(SettingFields.STOP_TIMEOUT).toString());
     }    
 
     /**
@@ -107,11 +120,63 @@ public class SettingsSceneController implements Initializable {
     
     @FXML
     public void onOKButtonClick(ActionEvent event) {
+        double regressionThreshold = 0;
+        
+        try {
+            regressionThreshold = Double.parseDouble(regressionThresholdField.getText());
+        } catch (NumberFormatException ex) {
+            
+        }
+        
+        if (regressionThreshold <= 0) {
+            Alert alert = AlertUtil.createAlert("The startup regression threshold must be a number greater than 0.");
+            alert.show();
+            
+            return;
+        }
+        
+        int serverPortRangeStart = 0;
+        int serverPortRangeEnd = 0;
+        
+        try {
+            serverPortRangeStart = Integer.parseInt(serverPortRangeStartField.getText());
+            serverPortRangeEnd = Integer.parseInt(serverPortRangeEndField.getText());
+        } catch (NumberFormatException ex) {
+            
+        }
+        
+        if (serverPortRangeStart < 1 || serverPortRangeEnd > 65535 || serverPortRangeStart > serverPortRangeEnd) {
+            Alert alert = AlertUtil.createAlert("The server port range must be two ports between 1 and 65535, with the first no greater than the second.");
+            alert.show();
+            
+            return;
+        }
+        
+        int stopTimeout = 0;
+        
+        try {
+            stopTimeout = Integer.parseInt(stopTimeoutField.getText());
+        } catch (NumberFormatException ex) {
+            
+        }
+        
+        if (stopTimeout < 1) {
+            Alert alert = AlertUtil.createAlert("The server stop timeout must be a whole number of seconds greater than 0.");
+            alert.show();
+            
+            return;
+        }
+        
         settings.setSetting(SettingFields.MINECRAFT_LAUNCHER_LOCATION, minecraftLauncherLocationLabel.getText());
         settings.setSetting(SettingFields.PLUGIN_JARFILE_BASE_DIRECTORY, pluginJarfileBaseDirectoryLabel.getText());
         settings.setSetting(SettingFields.SERVER_JARFILE_BASE_DIRECTORY, serverJarfileBaseDirectoryLabel.getText());
         settings.setSetting(SettingFields.REMEMBER_SELECTED_DEVELOPMENT_PROFILE, rememberSelectedDevelopmentProfileCheck.isSelected());
         settings.setSetting(SettingFields.CHECK_UPDATE_ON_STARTUP, checkUpdateOnStartupCheck.isSelected());
+        settings.setSetting(SettingFields.LAUNCH_THROUGH_SHELL, launchThroughShellCheck.isSelected());
+        settings.setSetting(SettingFields.REGRESSION_THRESHOLD, regressionThreshold);
+        settings.setSetting(SettingFields.SERVER_PORT_RANGE_START, serverPortRangeStart);
+        settings.setSetting(SettingFields.SERVER_PORT_RANGE_END, serverPortRangeEnd);
+        settings.setSetting(SettingFields.STOP_TIMEOUT, stopTimeout);
 
         controllerStage.close();
     }
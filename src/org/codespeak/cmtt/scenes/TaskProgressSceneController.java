@@ -0,0 +1,93 @@
+package org.codespeak.cmtt.scenes;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+import javafx.animation.PauseTransition;
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Worker.State;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import org.codespeak.cmtt.objects.BackgroundTask;
+
+/**
+ * Controller for the task progress scene. The window only appears if the
+ * task is still running after a short delay, so quick tasks don't flash a
+ * window
+ *
+ * @author Vector
+ */
+public class TaskProgressSceneController implements Initializable {
+
+    private static final Duration SHOW_DELAY = Duration.millis(400);
+
+    private Stage controllerStage = null;
+    private BackgroundTask<?> task = null;
+    private final PauseTransition showDelay = new PauseTransition(SHOW_DELAY);
+
+    @FXML private Label headerLabel;
+    @FXML private ProgressBar progressBar;
+    @FXML private Label messageLabel;
+    @FXML private Button cancelButton;
+
+    /**
+     * Initializes the controller class.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle rb) {
+        showDelay.setOnFinished((ActionEvent event) -> {
+            if (task != null && !task.isDone()) {
+                controllerStage.show();
+            }
+        });
+    }
+
+    /**
+     * Sets the stage representing this scene controller
+     * @param controllerStage stage representing this scene controller
+     */
+    public void setControllerStage(Stage controllerStage) {
+        this.controllerStage = controllerStage;
+    }
+
+    /**
+     * Sets the task whose progress is shown. The window is shown once the
+     * task has run for a moment
+     * @param task task whose progress is shown
+     */
+    public void setTask(BackgroundTask<?> task) {
+        this.task = task;
+
+        headerLabel.setText(task.getName());
+        progressBar.progressProperty().bind(task.progressProperty());
+        messageLabel.textProperty().bind(task.messageProperty());
+        task.stateProperty().addListener((ObservableValue<? extends State> observable, State oldState, State newState) -> {
+            if (newState == State.SUCCEEDED || newState == State.FAILED || newState == State.CANCELLED) {
+                taskFinished();
+            }
+        });
+        showDelay.playFromStart();
+    }
+
+    private void taskFinished() {
+        showDelay.stop();
+        controllerStage.close();
+    }
+
+    @FXML
+    public void onCancelButtonClick(ActionEvent event) {
+        if (task != null) {
+            task.cancel();
+        }
+
+        cancelButton.setDisable(true);
+        messageLabel.textProperty().unbind();
+        messageLabel.setText("Cancelling...");
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.codespeak.cmtt.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A utility class that computes file checksums by streaming files through
+ * a reused buffer. Each thread keeps its own digest and buffer, so checksums
+ * can be computed from several threads at once
+ *
+ * @author Vector
+ */
+public class ChecksumUtil {
+
+    private static final String ALGORITHM = "MD5";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    });
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private static final ThreadLocal<char[]> HEX_CHARS = new ThreadLocal<char[]>();
+
+    /**
+     * Gets the raw checksum of the file at the specified path
+     * @param path path to file
+     * @return raw checksum bytes of the file
+     * @throws IOException if the file could not be read
+     */
+    public static byte[] digest(Path path) throws IOException {
+        MessageDigest digest = DIGEST.get();
+        ByteBuffer buffer = BUFFER.get();
+
+        digest.reset();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer.clear();
+
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            digest.reset();
+
+            throw ex;
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * Copies a file to the specified target while computing its checksum, so
+     * the checksum always matches the bytes that were written
+     * @param source path to the file to copy
+     * @param target path to copy the file to
+     * @return checksum of the copied bytes as an uppercase hex string
+     * @throws IOException if the file could not be copied
+     */
+    public static String copy(Path source, Path target) throws IOException {
+        MessageDigest digest = DIGEST.get();
+        ByteBuffer buffer = BUFFER.get();
+
+        digest.reset();
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.clear();
+
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.rewind();
+
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            digest.reset();
+
+            throw ex;
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Gets the checksum of the file at the specified path as an uppercase
+     * hex string
+     * @param path path to file
+     * @return checksum of the file, or an empty string if the file could not
+     * be read
+     */
+    public static String getChecksum(Path path) {
+        try {
+            return toHex(digest(path));
+        } catch (IOException ex) {
+            return "";
+        }
+    }
+
+    /**
+     * Encodes the specified bytes as an uppercase hex string
+     * @param bytes bytes to encode
+     * @return uppercase hex string of the specified bytes
+     */
+    public static String toHex(byte[] bytes) {
+        int length = bytes.length * 2;
+        char[] chars = HEX_CHARS.get();
+
+        if (chars == null || chars.length < length) {
+            chars = new char[length];
+            HEX_CHARS.set(chars);
+        }
+
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+
+            chars[i * 2] = HEX_DIGITS[b >>> 4];
+            chars[i * 2 + 1] = HEX_DIGITS[b & 0xF];
+        }
+
+        return new String(chars, 0, length);
+    }
+
+}
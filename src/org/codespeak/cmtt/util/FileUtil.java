@@ -0,0 +1,50 @@
+package org.codespeak.cmtt.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import org.codespeak.cmtt.objects.DeleteResult;
+import org.codespeak.cmtt.objects.RecursiveDeleter;
+import org.codespeak.cmtt.objects.TaskContext;
+import org.codespeak.cmtt.objects.handlers.TrashHandler;
+
+/**
+ * Utility methods for working with folders of files
+ *
+ * @author Vector
+ */
+public class FileUtil {
+
+    /**
+     * Deletes a file or folder and everything in it, deleting subfolders in
+     * parallel
+     * @param path path to delete
+     * @param context context to report progress to and check for
+     * cancellation, or null
+     * @return result of the delete, including files that could not be
+     * deleted
+     */
+    public static DeleteResult deleteRecursively(Path path, TaskContext context) {
+        RecursiveDeleter deleter = new RecursiveDeleter(path, context);
+
+        return deleter.delete();
+    }
+
+    /**
+     * Removes a file or folder by moving it into the trash, where it is
+     * deleted in the background. If it can't be moved, it is deleted in
+     * place instead
+     * @param path path to remove
+     * @param context context to report progress to and check for
+     * cancellation if the path has to be deleted in place, or null
+     * @return result of the removal, including files that could not be
+     * deleted in place
+     */
+    public static DeleteResult discard(Path path, TaskContext context) {
+        if (TrashHandler.moveToTrash(path)) {
+            return new DeleteResult(0, new ArrayList<Path>(), false);
+        }
+
+        return deleteRecursively(path, context);
+    }
+
+}
@@ -1,11 +1,7 @@
 package org.codespeak.cmtt.util;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import javafx.stage.FileChooser.ExtensionFilter;
 
@@ -17,45 +13,13 @@ public class MiscUtil {
 
     public static final ExtensionFilter JARFILE_ONLY_FILTER = new ExtensionFilter("Jarfile (*.jar)", "*.jar");
     
-    private static MessageDigest digest = null;
-    
-    private static MessageDigest getDigest() {
-        if (digest == null) {
-            try {
-                digest = MessageDigest.getInstance("MD5");                
-            } catch (NoSuchAlgorithmException ex) {
-                
-            }
-        }
-        
-        return digest;
-    }
-    
     /**
      * Gets an MD5 checksum from the specified path
      * @param path path to file
      * @return checksum of specified bytes
      */
     public static String getChecksum(Path path) {
-        try {
-            byte[] bytes = Files.readAllBytes(path);
-            
-            MessageDigest d = getDigest();
-            d.update(bytes);
-            byte[] result = d.digest();
-            d.reset();
-
-            String output = "";
-            
-            for (byte b : result) {
-                output += Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16));
-                output += Character.toUpperCase(Character.forDigit(b & 0xF, 16));
-            }
-            
-            return output;
-        } catch (IOException ex) {
-            return "";
-        }
+        return ChecksumUtil.getChecksum(path);
     }
 
     /**
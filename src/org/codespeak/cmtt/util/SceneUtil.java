@@ -8,8 +8,12 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.codespeak.cmtt.Configuration;
 import org.codespeak.cmtt.Main;
+import org.codespeak.cmtt.objects.BackgroundTask;
+import org.codespeak.cmtt.objects.ProgramException;
 import org.codespeak.cmtt.objects.StageController;
+import org.codespeak.cmtt.objects.handlers.BackgroundTaskHandler;
 import org.codespeak.cmtt.scenes.SceneTypes;
+import org.codespeak.cmtt.scenes.TaskProgressSceneController;
 
 /**
  * A class for creating or changing scenes
@@ -77,4 +81,25 @@ public class SceneUtil {
         return new StageController(stage, loader.getController());
     }
 
+    /**
+     * Runs a task in the background, with a window showing its progress and
+     * letting it be cancelled if it takes a while
+     * @param task task to run
+     */
+    public static void runTask(BackgroundTask<?> task) {
+        try {
+            StageController<TaskProgressSceneController> stageController = getScene(new Stage(), SceneTypes.TASK_PROGRESS, task.getName(), false);
+            TaskProgressSceneController controller = stageController.getController();
+            
+            controller.setControllerStage(stageController.getStage());
+            controller.setTask(task);
+        } catch (IOException ex) {
+            ProgramException ex2 = ProgramException.fromException(ex);
+
+            Main.handleError(ex2);
+        }
+        
+        BackgroundTaskHandler.submit(task);
+    }
+
 }
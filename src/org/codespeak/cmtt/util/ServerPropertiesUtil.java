@@ -0,0 +1,94 @@
+package org.codespeak.cmtt.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A utility class for reading and changing server.properties files. Lines
+ * that aren't changed, including comments, are kept as they are
+ *
+ * @author Vector
+ */
+public class ServerPropertiesUtil {
+
+    /**
+     * Name of the server properties file
+     */
+    public static final String FILE_NAME = "server.properties";
+
+    private static String getKey(String line) {
+        String trimmed = line.trim();
+
+        if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("!")) {
+            return null;
+        }
+
+        int separator = trimmed.indexOf('=');
+
+        return (separator > -1 ? trimmed.substring(0, separator).trim() : trimmed);
+    }
+
+    /**
+     * Gets the value of a property
+     * @param file path to the server.properties file
+     * @param key key of the property
+     * @return value of the property, or null if the file or property doesn't
+     * exist
+     */
+    public static String getProperty(Path file, String key) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (key.equals(getKey(line))) {
+                    int separator = line.indexOf('=');
+
+                    return (separator > -1 ? line.substring(separator + 1).trim() : "");
+                }
+            }
+        } catch (IOException ex) {
+
+        }
+
+        return null;
+    }
+
+    /**
+     * Sets the specified properties, adding any that don't exist yet. The
+     * file is created if it doesn't exist
+     * @param file path to the server.properties file
+     * @param properties properties to set
+     * @throws IOException if the file could not be read or written
+     */
+    public static void setProperties(Path file, Map<String, String> properties) throws IOException {
+        Map<String, String> remaining = new LinkedHashMap<String, String>(properties);
+        List<String> lines = new ArrayList<String>();
+
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String key = getKey(line);
+
+                if (key != null && remaining.containsKey(key)) {
+                    line = key + "=" + remaining.remove(key);
+                }
+
+                lines.add(line);
+            }
+        }
+
+        for (Map.Entry<String, String> entry : remaining.entrySet()) {
+            lines.add(entry.getKey() + "=" + entry.getValue());
+        }
+
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+}
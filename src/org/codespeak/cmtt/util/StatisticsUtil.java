@@ -0,0 +1,73 @@
+package org.codespeak.cmtt.util;
+
+import java.util.Arrays;
+
+/**
+ * A utility class with simple statistics functions
+ *
+ * @author Vector
+ */
+public class StatisticsUtil {
+
+    /**
+     * Gets the specified percentile of the values using the nearest-rank
+     * method
+     * @param values values to get the percentile from
+     * @param percentile percentile between 0 and 100
+     * @return the percentile of the values, or 0 if there are no values
+     */
+    public static double percentile(double[] values, double percentile) {
+        if (values.length == 0) {
+            return 0;
+        }
+
+        double[] sorted = Arrays.copyOf(values, values.length);
+
+        Arrays.sort(sorted);
+
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Gets the mean of the values
+     * @param values values to get the mean of
+     * @return mean of the values, or 0 if there are no values
+     */
+    public static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+
+        double sum = 0;
+
+        for (double value : values) {
+            sum += value;
+        }
+
+        return sum / values.length;
+    }
+
+    /**
+     * Gets the sample standard deviation of the values
+     * @param values values to get the standard deviation of
+     * @return standard deviation of the values, or 0 if there are fewer than
+     * two values
+     */
+    public static double standardDeviation(double[] values) {
+        if (values.length < 2) {
+            return 0;
+        }
+
+        double mean = mean(values);
+        double sum = 0;
+
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+
+        return Math.sqrt(sum / (values.length - 1));
+    }
+
+}
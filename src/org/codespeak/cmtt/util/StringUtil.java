@@ -60,4 +60,61 @@ public class StringUtil {
         return ret;
     }
     
+    /**
+     * Splits a command line into arguments the way a shell would. Arguments
+     * are separated by whitespace, and whitespace inside single or double
+     * quotes is kept. The quotes themselves are removed
+     * @param input the command line
+     * @return a list of arguments split from the command line
+     */
+    public static List<String> splitArguments(String input) {
+        List<String> ret = new ArrayList<String>();
+        StringBuilder current = new StringBuilder();
+        boolean inArgument = false;
+        char quote = 0;
+        
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inArgument = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inArgument) {
+                    ret.add(current.toString());
+                    current.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                current.append(c);
+                inArgument = true;
+            }
+        }
+        
+        if (inArgument) {
+            ret.add(current.toString());
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Quotes an argument so a POSIX shell passes it on unchanged
+     * @param argument the argument to quote
+     * @return the quoted argument
+     */
+    public static String quoteShellArgument(String argument) {
+        if (!argument.isEmpty() && argument.matches("[A-Za-z0-9_./=:,+@%^-]+")) {
+            return argument;
+        }
+        
+        return "'" + argument.replace("'", "'\\''") + "'";
+    }
+    
 }
@@ -0,0 +1,160 @@
+package org.codespeak.cmtt.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Utility methods for threads that only wait on servers. These run on
+ * virtual threads when the runtime supports them, so supervising many
+ * servers at once doesn't cost a platform thread stack each
+ *
+ * @author Vector
+ */
+public class ThreadUtil {
+
+    private static final Method OF_VIRTUAL_METHOD;
+    private static final Method NAME_METHOD;
+    private static final Method UNSTARTED_METHOD;
+    private static final Method ON_EXIT_METHOD;
+    private static volatile boolean virtualThreadsSupported;
+
+    static {
+        Method ofVirtualMethod = null;
+        Method nameMethod = null;
+        Method unstartedMethod = null;
+        Method onExitMethod = null;
+
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+            ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+            nameMethod = builderClass.getMethod("name", String.class);
+            unstartedMethod = builderClass.getMethod("unstarted", Runnable.class);
+        } catch (ClassNotFoundException | NoSuchMethodException ex) {
+            ofVirtualMethod = null;
+        }
+
+        try {
+            onExitMethod = Process.class.getMethod("onExit");
+        } catch (NoSuchMethodException ex) {
+
+        }
+
+        OF_VIRTUAL_METHOD = ofVirtualMethod;
+        NAME_METHOD = nameMethod;
+        UNSTARTED_METHOD = unstartedMethod;
+        ON_EXIT_METHOD = onExitMethod;
+        virtualThreadsSupported = (ofVirtualMethod != null);
+    }
+
+    /**
+     * Gets if new threads are created as virtual threads
+     * @return if new threads are created as virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return virtualThreadsSupported;
+    }
+
+    /**
+     * Creates an unstarted thread that runs the specified task. The thread is
+     * a virtual thread if the runtime supports them, or a daemon thread
+     * otherwise
+     * @param name name of the thread
+     * @param task task to run
+     * @return unstarted thread that runs the task
+     */
+    public static Thread newThread(String name, Runnable task) {
+        if (virtualThreadsSupported) {
+            try {
+                Object builder = OF_VIRTUAL_METHOD.invoke(null);
+
+                builder = NAME_METHOD.invoke(builder, name);
+
+                return (Thread) UNSTARTED_METHOD.invoke(builder, task);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                // Virtual threads are a preview feature on some runtimes
+                virtualThreadsSupported = false;
+            }
+        }
+
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<Process> onExit(Process process) {
+        if (ON_EXIT_METHOD == null) {
+            return null;
+        }
+
+        try {
+            return (CompletableFuture<Process>) ON_EXIT_METHOD.invoke(process);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the specified process to terminate. Unlike Process.waitFor,
+     * this doesn't pin the carrier of a virtual thread. On runtimes without
+     * Process.onExit, this waits with Process.waitFor on the calling thread
+     * @param process process to wait on
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void waitFor(Process process) throws InterruptedException {
+        if (!process.isAlive()) {
+            return;
+        }
+
+        CompletableFuture<Process> future = onExit(process);
+
+        if (future == null) {
+            process.waitFor();
+
+            return;
+        }
+
+        try {
+            future.get();
+        } catch (ExecutionException ex) {
+            process.waitFor();
+        }
+    }
+
+    /**
+     * Waits up to the specified time for the specified process to terminate
+     * @param process process to wait on
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return if the process terminated within the time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static boolean waitFor(Process process, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!process.isAlive()) {
+            return true;
+        }
+
+        CompletableFuture<Process> future = onExit(process);
+
+        if (future == null) {
+            return process.waitFor(timeout, unit);
+        }
+
+        try {
+            future.get(timeout, unit);
+
+            return true;
+        } catch (TimeoutException ex) {
+            return false;
+        } catch (ExecutionException ex) {
+            return process.waitFor(timeout, unit);
+        }
+    }
+
+}